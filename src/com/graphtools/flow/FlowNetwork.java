@@ -0,0 +1,514 @@
+package com.graphtools.flow;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * A residual network for maximum flow computations, solved with Dinic's
+ * algorithm. Arcs are stored in flat compressed sparse row arrays grouped by
+ * tail, each with the index of its paired reverse arc, so the level graph
+ * search and the blocking flow scan contiguous memory and allocate nothing.
+ * The blocking flow is found iteratively with a current-arc pointer per
+ * vertex, so deep level graphs do not overflow the stack.
+ * <p>
+ * For the small flow values of connectivity tests, where a flow is stopped
+ * after a handful of units, {@link #augmentingPathFlow(int, int, double)}
+ * finds each augmenting path with a balanced bidirectional breadth-first
+ * search instead. In low diameter graphs the two searches meet after
+ * exploring a tiny fraction of the network, so a test costs far less than one
+ * full level graph.
+ * <p>
+ * A network can be solved repeatedly: {@link #reset()} restores the original
+ * capacities of the arcs that carried flow, in time proportional to their
+ * number.
+ */
+public class FlowNetwork {
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] heads;
+    private final int[] reverse;
+    private final double[] capacity;
+    private final double[] residual;
+
+    private final int[] level;
+    private final int[] current;
+    private final int[] queue;
+    private final int[] pathArcs;
+    private final int[] pathTails;
+
+    private final int[] dirty;
+    private final boolean[] isDirty;
+    private int dirtyCount;
+
+    private final int[] forwardSeen;
+    private final int[] backwardSeen;
+    private final int[] forwardArc;
+    private final int[] backwardArc;
+    private final int[] backwardQueue;
+    private int stamp;
+
+    /**
+     * Creates a network from an edge list. Each edge becomes an arc and its
+     * reverse arc; for an undirected network both carry the edge capacity.
+     *
+     * @param vertexCount The number of vertices.
+     * @param tails       The tail of every edge.
+     * @param heads       The head of every edge.
+     * @param capacities  The capacity of every edge.
+     * @param undirected  Whether flow may use each edge in both directions.
+     */
+    public FlowNetwork(int vertexCount, int[] tails, int[] heads, double[] capacities, boolean undirected) {
+        if (tails.length != heads.length || tails.length != capacities.length) {
+            throw new IllegalArgumentException("Edge arrays must have the same length.");
+        }
+        int edgeCount = tails.length;
+        this.vertexCount = vertexCount;
+        this.offsets = new int[vertexCount + 1];
+        this.heads = new int[2 * edgeCount];
+        this.reverse = new int[2 * edgeCount];
+        this.capacity = new double[2 * edgeCount];
+
+        for (int e = 0; e < edgeCount; e++) {
+            if (capacities[e] < 0) {
+                throw new IllegalArgumentException("Capacities must be non-negative.");
+            }
+            offsets[tails[e] + 1]++;
+            offsets[heads[e] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] fill = Arrays.copyOf(offsets, vertexCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int u = tails[e];
+            int v = heads[e];
+            int forward = fill[u]++;
+            int backward = fill[v]++;
+            this.heads[forward] = v;
+            this.heads[backward] = u;
+            this.reverse[forward] = backward;
+            this.reverse[backward] = forward;
+            this.capacity[forward] = capacities[e];
+            this.capacity[backward] = undirected ? capacities[e] : 0.0;
+        }
+
+        this.residual = capacity.clone();
+        this.level = new int[vertexCount];
+        this.current = new int[vertexCount];
+        this.queue = new int[vertexCount];
+        this.pathArcs = new int[vertexCount];
+        this.pathTails = new int[vertexCount];
+        this.dirty = new int[2 * edgeCount];
+        this.isDirty = new boolean[2 * edgeCount];
+        this.forwardSeen = new int[vertexCount];
+        this.backwardSeen = new int[vertexCount];
+        this.forwardArc = new int[vertexCount];
+        this.backwardArc = new int[vertexCount];
+        this.backwardQueue = new int[vertexCount];
+    }
+
+    /**
+     * Creates a network with the arcs of another and no flow. The arc arrays
+     * are read-only and shared; the residual capacities and search buffers
+     * are new.
+     */
+    private FlowNetwork(FlowNetwork other) {
+        this.vertexCount = other.vertexCount;
+        this.offsets = other.offsets;
+        this.heads = other.heads;
+        this.reverse = other.reverse;
+        this.capacity = other.capacity;
+        this.residual = capacity.clone();
+        this.level = new int[vertexCount];
+        this.current = new int[vertexCount];
+        this.queue = new int[vertexCount];
+        this.pathArcs = new int[vertexCount];
+        this.pathTails = new int[vertexCount];
+        this.dirty = new int[heads.length];
+        this.isDirty = new boolean[heads.length];
+        this.forwardSeen = new int[vertexCount];
+        this.backwardSeen = new int[vertexCount];
+        this.forwardArc = new int[vertexCount];
+        this.backwardArc = new int[vertexCount];
+        this.backwardQueue = new int[vertexCount];
+    }
+
+    /**
+     * Creates a network whose arcs are those of a sparse graph, with the arc
+     * weights as capacities. Self loops are dropped.
+     *
+     * @param graph      The sparse graph.
+     * @param undirected Whether the graph stores each undirected edge as two
+     *                   arcs; only one of them is then added, with capacity
+     *                   in both directions.
+     * @return The flow network.
+     */
+    public static FlowNetwork fromSparseGraph(SparseGraph graph, boolean undirected) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+
+        int count = 0;
+        int[] tails = new int[graph.getArcCount()];
+        int[] heads = new int[graph.getArcCount()];
+        double[] capacities = new double[graph.getArcCount()];
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int v = targets[a];
+                if (undirected ? u < v : u != v) {
+                    tails[count] = u;
+                    heads[count] = v;
+                    capacities[count] = weights[a];
+                    count++;
+                }
+            }
+        }
+
+        return new FlowNetwork(n, Arrays.copyOf(tails, count), Arrays.copyOf(heads, count),
+                Arrays.copyOf(capacities, count), undirected);
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of residual arcs, twice the number of edges.
+     *
+     * @return The arc count.
+     */
+    public int getArcCount() {
+        return heads.length;
+    }
+
+    /**
+     * Returns an independent copy of this network without flow, so several
+     * threads can solve flows on the same arcs at once.
+     *
+     * @return The copy.
+     */
+    public FlowNetwork copy() {
+        return new FlowNetwork(this);
+    }
+
+    /**
+     * Restores every arc to its original capacity, discarding any flow.
+     */
+    public void reset() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int a = dirty[i];
+            residual[a] = capacity[a];
+            isDirty[a] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    /**
+     * Computes a maximum flow from source to sink on top of whatever flow the
+     * network already carries.
+     *
+     * @param source The source vertex.
+     * @param sink   The sink vertex.
+     * @return The value of the flow added.
+     */
+    public double maxFlow(int source, int sink) {
+        return maxFlow(source, sink, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Pushes flow from source to sink until it is maximum or reaches a limit.
+     * Stopping at the limit is what makes connectivity tests cheap: a pair
+     * only needs to be checked against the best cut found so far.
+     *
+     * @param source The source vertex.
+     * @param sink   The sink vertex.
+     * @param limit  The flow value at which to stop.
+     * @return The value of the flow added, min(max flow, limit).
+     */
+    public double maxFlow(int source, int sink, double limit) {
+        if (source == sink) {
+            throw new IllegalArgumentException("Source and sink must differ.");
+        }
+        double flow = 0.0;
+        while (flow < limit && buildLevels(source, sink)) {
+            System.arraycopy(offsets, 0, current, 0, vertexCount);
+            flow += blockingFlow(source, sink, limit - flow);
+        }
+        return flow;
+    }
+
+    /**
+     * Returns the vertices reachable from the source in the residual network.
+     * After a maximum flow (not stopped by a limit) this is the source side of
+     * a minimum cut.
+     *
+     * @param source The source vertex.
+     * @return A flag per vertex, true on the source side.
+     */
+    public boolean[] getSourceSide(int source) {
+        boolean[] side = new boolean[vertexCount];
+        side[source] = true;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int v = heads[a];
+                if (!side[v] && residual[a] > 0) {
+                    side[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return side;
+    }
+
+    /**
+     * Breadth-first search over arcs with residual capacity, labelling every
+     * vertex with its distance from the source. Vertices beyond the sink's
+     * level are never needed and are not expanded.
+     *
+     * @return True if the sink is reachable.
+     */
+    private boolean buildLevels(int source, int sink) {
+        Arrays.fill(level, -1);
+        level[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int u = queue[head++];
+            if (level[sink] >= 0 && level[u] >= level[sink]) {
+                break;
+            }
+            int next = level[u] + 1;
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int v = heads[a];
+                if (level[v] < 0 && residual[a] > 0) {
+                    level[v] = next;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return level[sink] >= 0;
+    }
+
+    /**
+     * Finds a blocking flow in the level graph by repeated advance and retreat
+     * steps. After an augmentation the walk resumes from the tail of the
+     * first saturated arc; a vertex with no admissible arc left is removed
+     * from the level graph.
+     *
+     * @return The value of the blocking flow, capped at the limit.
+     */
+    private double blockingFlow(int source, int sink, double limit) {
+        double total = 0.0;
+        int depth = 0;
+        int v = source;
+
+        while (true) {
+            if (v == sink) {
+                double bottleneck = limit - total;
+                for (int i = 0; i < depth; i++) {
+                    bottleneck = Math.min(bottleneck, residual[pathArcs[i]]);
+                }
+                int firstSaturated = depth;
+                for (int i = 0; i < depth; i++) {
+                    int a = pathArcs[i];
+                    push(a, bottleneck);
+                    if (residual[a] <= 0 && firstSaturated == depth) {
+                        firstSaturated = i;
+                    }
+                }
+                total += bottleneck;
+                if (total >= limit) {
+                    return total;
+                }
+                depth = firstSaturated;
+                v = pathTails[depth];
+                continue;
+            }
+
+            int end = offsets[v + 1];
+            int a = current[v];
+            while (a < end && (residual[a] <= 0 || level[heads[a]] != level[v] + 1)) {
+                a++;
+            }
+            current[v] = a;
+
+            if (a < end) {
+                pathArcs[depth] = a;
+                pathTails[depth] = v;
+                depth++;
+                v = heads[a];
+            } else {
+                level[v] = -1;
+                if (depth == 0) {
+                    return total;
+                }
+                depth--;
+                v = pathTails[depth];
+                current[v]++;
+            }
+        }
+    }
+
+    /**
+     * Pushes flow from source to sink one augmenting path at a time until it
+     * is maximum or reaches a limit. Each path is found by a breadth-first
+     * search from both ends that always expands the smaller frontier, and
+     * visited marks are cleared by bumping a stamp rather than by touching
+     * every vertex. Intended for limits of a few units; use
+     * {@link #maxFlow(int, int, double)} for large flows.
+     *
+     * @param source The source vertex.
+     * @param sink   The sink vertex.
+     * @param limit  The flow value at which to stop.
+     * @return The value of the flow added, min(max flow, limit).
+     */
+    public double augmentingPathFlow(int source, int sink, double limit) {
+        if (source == sink) {
+            throw new IllegalArgumentException("Source and sink must differ.");
+        }
+        double flow = 0.0;
+        while (flow < limit) {
+            int meet = findPath(source, sink);
+            if (meet < 0) {
+                break;
+            }
+
+            double bottleneck = limit - flow;
+            for (int v = meet; v != source; v = heads[reverse[forwardArc[v]]]) {
+                bottleneck = Math.min(bottleneck, residual[forwardArc[v]]);
+            }
+            for (int v = meet; v != sink; v = heads[backwardArc[v]]) {
+                bottleneck = Math.min(bottleneck, residual[backwardArc[v]]);
+            }
+            for (int v = meet; v != source; v = heads[reverse[forwardArc[v]]]) {
+                push(forwardArc[v], bottleneck);
+            }
+            for (int v = meet; v != sink; v = heads[backwardArc[v]]) {
+                push(backwardArc[v], bottleneck);
+            }
+            flow += bottleneck;
+        }
+        return flow;
+    }
+
+    /**
+     * Balanced bidirectional breadth-first search for a residual path. On
+     * success, forwardArc[v] is the arc entering v on the source side and
+     * backwardArc[v] the arc leaving v on the sink side.
+     *
+     * @return The vertex where the searches met, or -1 if there is no path.
+     */
+    private int findPath(int source, int sink) {
+        stamp++;
+        forwardSeen[source] = stamp;
+        backwardSeen[sink] = stamp;
+        queue[0] = source;
+        backwardQueue[0] = sink;
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                while (forwardHead < levelEnd) {
+                    int u = queue[forwardHead++];
+                    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                        int v = heads[a];
+                        if (residual[a] > 0 && forwardSeen[v] != stamp) {
+                            forwardSeen[v] = stamp;
+                            forwardArc[v] = a;
+                            if (backwardSeen[v] == stamp) {
+                                return v;
+                            }
+                            queue[forwardTail++] = v;
+                        }
+                    }
+                }
+            } else {
+                int levelEnd = backwardTail;
+                while (backwardHead < levelEnd) {
+                    int u = backwardQueue[backwardHead++];
+                    for (int b = offsets[u]; b < offsets[u + 1]; b++) {
+                        int a = reverse[b];
+                        int v = heads[b];
+                        if (residual[a] > 0 && backwardSeen[v] != stamp) {
+                            backwardSeen[v] = stamp;
+                            backwardArc[v] = a;
+                            if (forwardSeen[v] == stamp) {
+                                return v;
+                            }
+                            backwardQueue[backwardTail++] = v;
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sends flow along an arc, remembering it for the next reset.
+     *
+     * @param a      The arc.
+     * @param amount The amount of flow.
+     */
+    private void push(int a, double amount) {
+        int b = reverse[a];
+        residual[a] -= amount;
+        residual[b] += amount;
+        if (!isDirty[a]) {
+            isDirty[a] = true;
+            dirty[dirtyCount++] = a;
+        }
+        if (!isDirty[b]) {
+            isDirty[b] = true;
+            dirty[dirtyCount++] = b;
+        }
+    }
+
+    /**
+     * Example usage of the FlowNetwork class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        int[] tails = { 0, 0, 1, 1, 2, 3, 4 };
+        int[] heads = { 1, 2, 2, 3, 4, 5, 5 };
+        double[] capacities = { 10, 10, 2, 4, 9, 10, 10 };
+        FlowNetwork network = new FlowNetwork(6, tails, heads, capacities, false);
+        System.out.println("Max flow 0 -> 5: " + network.maxFlow(0, 5));
+        System.out.println("Source side: " + Arrays.toString(network.getSourceSide(0)));
+
+        // Random network with 20,000 vertices and 200,000 edges
+        int n = 20000;
+        int m = 200000;
+        Random random = new Random(3);
+        int[] randomTails = new int[m];
+        int[] randomHeads = new int[m];
+        double[] randomCapacities = new double[m];
+        for (int e = 0; e < m; e++) {
+            randomTails[e] = random.nextInt(n);
+            randomHeads[e] = (randomTails[e] + 1 + random.nextInt(n - 1)) % n;
+            randomCapacities[e] = 1 + random.nextInt(100);
+        }
+        FlowNetwork large = new FlowNetwork(n, randomTails, randomHeads, randomCapacities, false);
+        long start = System.nanoTime();
+        double flow = large.maxFlow(0, n - 1);
+        System.out.printf("Max flow on %d edges: %.0f (%.1f ms)%n", m, flow, (System.nanoTime() - start) / 1e6);
+
+        large.reset();
+        System.out.println("Same flow by augmenting paths: " + large.augmentingPathFlow(0, n - 1, flow + 1));
+    }
+}
@@ -0,0 +1,285 @@
+package com.graphtools.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mutable graph backed by a dense adjacency matrix. Every mutation bumps a
+ * version number, which lets caches and derived structures detect that the
+ * graph has changed. A zero weight means "no edge". In an undirected graph,
+ * every edge is stored in both directions.
+ * Mutations are not thread-safe; concurrent reads between mutations are.
+ * Registered {@link EdgeListener}s are told about every change, which lets
+ * derived measures be maintained incrementally instead of recomputed.
+ */
+public class Graph {
+
+    /**
+     * Receives the edge changes of a graph.
+     */
+    public interface EdgeListener {
+        /**
+         * Called after the edge from u to v has changed weight. A weight of 0
+         * means no edge, so an insertion has an old weight of 0 and a deletion
+         * a new weight of 0. In an undirected graph the entry from v to u has
+         * changed the same way.
+         *
+         * @param graph     The graph, already updated.
+         * @param u         The source vertex.
+         * @param v         The target vertex.
+         * @param oldWeight The previous weight.
+         * @param newWeight The new weight.
+         */
+        void edgeChanged(Graph graph, int u, int v, double oldWeight, double newWeight);
+    }
+
+    private final double[][] adjacencyMatrix;
+    private final boolean directed;
+    private volatile long version;
+    private long nonZeroCount;
+    private long positiveCount;
+    private long selfLoopCount;
+
+    private SparseGraph sparseGraph;
+    private long sparseVersion = -1;
+    private DegreeProfile degreeProfile;
+    private long profileVersion = -1;
+    private final List<EdgeListener> listeners = new ArrayList<>();
+
+    /**
+     * Creates an empty graph.
+     *
+     * @param vertexCount The number of vertices.
+     * @param directed    Whether edges are directed.
+     */
+    public Graph(int vertexCount, boolean directed) {
+        this.adjacencyMatrix = new double[vertexCount][vertexCount];
+        this.directed = directed;
+    }
+
+    /**
+     * Creates a graph from a copy of an adjacency matrix. For an undirected
+     * graph the matrix is expected to be symmetric.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @param directed        Whether edges are directed.
+     * @return The graph.
+     */
+    public static Graph fromMatrix(double[][] adjacencyMatrix, boolean directed) {
+        int n = adjacencyMatrix.length;
+        Graph graph = new Graph(n, directed);
+        long nonZero = 0;
+        long positive = 0;
+        for (int i = 0; i < n; i++) {
+            double[] row = Arrays.copyOf(adjacencyMatrix[i], n);
+            for (double weight : row) {
+                nonZero += weight != 0 ? 1 : 0;
+                positive += weight > 0 ? 1 : 0;
+            }
+            graph.adjacencyMatrix[i] = row;
+            if (row[i] != 0) {
+                graph.selfLoopCount++;
+            }
+        }
+        graph.nonZeroCount = nonZero;
+        graph.positiveCount = positive;
+        return graph;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return The vertex count.
+     */
+    public int getVertexCount() {
+        return adjacencyMatrix.length;
+    }
+
+    /**
+     * Checks whether the graph is directed.
+     *
+     * @return True if the graph is directed, false otherwise.
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Returns the number of non-zero entries of the adjacency matrix, kept up
+     * to date by every mutation. An undirected edge between distinct vertices
+     * accounts for two entries, a self loop for one.
+     *
+     * @return The non-zero count.
+     */
+    public long getNonZeroCount() {
+        return nonZeroCount;
+    }
+
+    /**
+     * Returns the number of positive entries of the adjacency matrix, kept up
+     * to date by every mutation and counted like {@link #getNonZeroCount()}.
+     *
+     * @return The positive count.
+     */
+    public long getPositiveCount() {
+        return positiveCount;
+    }
+
+    /**
+     * Returns the number of self loops, kept up to date by every mutation.
+     *
+     * @return The self loop count.
+     */
+    public long getSelfLoopCount() {
+        return selfLoopCount;
+    }
+
+    /**
+     * Returns the version number, which changes on every mutation.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the weight of the edge from u to v.
+     *
+     * @param u The source vertex.
+     * @param v The target vertex.
+     * @return The weight, or 0 if there is no edge.
+     */
+    public double getWeight(int u, int v) {
+        return adjacencyMatrix[u][v];
+    }
+
+    /**
+     * Checks whether there is an edge from u to v.
+     *
+     * @param u The source vertex.
+     * @param v The target vertex.
+     * @return True if the edge exists, false otherwise.
+     */
+    public boolean hasEdge(int u, int v) {
+        return adjacencyMatrix[u][v] != 0;
+    }
+
+    /**
+     * Adds, re-weights or (with a weight of 0) removes the edge from u to v.
+     *
+     * @param u      The source vertex.
+     * @param v      The target vertex.
+     * @param weight The new weight.
+     */
+    public void setEdge(int u, int v, double weight) {
+        if (adjacencyMatrix[u][v] == weight && (directed || adjacencyMatrix[v][u] == weight)) {
+            return;
+        }
+        double oldWeight = adjacencyMatrix[u][v];
+        int change = (weight != 0 ? 1 : 0) - (oldWeight != 0 ? 1 : 0);
+        if (u == v) {
+            selfLoopCount += change;
+        } else if (!directed) {
+            nonZeroCount += (weight != 0 ? 1 : 0) - (adjacencyMatrix[v][u] != 0 ? 1 : 0);
+            positiveCount += (weight > 0 ? 1 : 0) - (adjacencyMatrix[v][u] > 0 ? 1 : 0);
+        }
+        nonZeroCount += change;
+        positiveCount += (weight > 0 ? 1 : 0) - (oldWeight > 0 ? 1 : 0);
+        adjacencyMatrix[u][v] = weight;
+        if (!directed) {
+            adjacencyMatrix[v][u] = weight;
+        }
+        version++;
+        for (EdgeListener listener : listeners) {
+            listener.edgeChanged(this, u, v, oldWeight, weight);
+        }
+    }
+
+    /**
+     * Registers a listener for edge changes.
+     *
+     * @param listener The listener.
+     */
+    public void addEdgeListener(EdgeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener The listener.
+     */
+    public void removeEdgeListener(EdgeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Removes the edge from u to v, if present.
+     *
+     * @param u The source vertex.
+     * @param v The target vertex.
+     */
+    public void removeEdge(int u, int v) {
+        setEdge(u, v, 0.0);
+    }
+
+    /**
+     * Returns the backing adjacency matrix. The matrix is shared with the
+     * graph and must not be modified; use {@link #setEdge} instead.
+     *
+     * @return The adjacency matrix.
+     */
+    public double[][] getAdjacencyMatrix() {
+        return adjacencyMatrix;
+    }
+
+    /**
+     * Returns a sparse copy of the graph, rebuilt only when the graph has
+     * changed since the last call.
+     *
+     * @return The sparse graph.
+     */
+    public synchronized SparseGraph toSparseGraph() {
+        long current = version;
+        if (sparseGraph == null || sparseVersion != current) {
+            sparseGraph = SparseGraph.fromMatrix(adjacencyMatrix);
+            sparseVersion = current;
+        }
+        return sparseGraph;
+    }
+
+    /**
+     * Returns the degree profile of the graph, recomputed only when the graph
+     * has changed since the last call.
+     *
+     * @return The degree profile.
+     */
+    public synchronized DegreeProfile getDegreeProfile() {
+        long current = version;
+        if (degreeProfile == null || profileVersion != current) {
+            degreeProfile = DegreeProfile.of(adjacencyMatrix, directed);
+            profileVersion = current;
+        }
+        return degreeProfile;
+    }
+
+    /**
+     * Example usage of the Graph class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        Graph graph = new Graph(4, false);
+        graph.setEdge(0, 1, 1.0);
+        graph.setEdge(1, 2, 2.5);
+        System.out.println("Version: " + graph.getVersion());
+
+        graph.removeEdge(0, 1);
+        System.out.println("Edge 1-0 exists: " + graph.hasEdge(1, 0));
+        System.out.println("Version: " + graph.getVersion());
+        System.out.println("Sparse arcs: " + graph.toSparseGraph().getArcCount());
+        System.out.println("Max degree: " + graph.getDegreeProfile().getMaxDegree());
+    }
+}
@@ -0,0 +1,275 @@
+package com.graphtools.graph;
+
+import java.util.Arrays;
+
+/**
+ * An immutable compressed sparse row (CSR) representation of a graph.
+ * The neighbours of vertex v are stored in targets[offsets[v] .. offsets[v + 1])
+ * in ascending order, with the matching arc weights in the weights array.
+ */
+public class SparseGraph {
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    /**
+     * Creates a sparse graph from its CSR arrays. The arrays are used directly
+     * and must not be modified afterwards.
+     *
+     * @param vertexCount The number of vertices.
+     * @param offsets     The row offsets (length vertexCount + 1).
+     * @param targets     The arc targets, sorted within each row.
+     * @param weights     The arc weights.
+     */
+    public SparseGraph(int vertexCount, int[] offsets, int[] targets, double[] weights) {
+        if (offsets.length != vertexCount + 1 || targets.length != weights.length
+                || offsets[vertexCount] != targets.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays.");
+        }
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds a sparse graph from an adjacency matrix. Every non-zero entry
+     * matrix[i][j] becomes an arc from i to j.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The sparse graph.
+     */
+    public static SparseGraph fromMatrix(double[][] adjacencyMatrix) {
+        int n = adjacencyMatrix.length;
+        int[] offsets = new int[n + 1];
+
+        for (int i = 0; i < n; i++) {
+            double[] row = adjacencyMatrix[i];
+            int count = 0;
+            for (int j = 0; j < n; j++) {
+                if (row[j] != 0) {
+                    count++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + count;
+        }
+
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            double[] row = adjacencyMatrix[i];
+            int pos = offsets[i];
+            for (int j = 0; j < n; j++) {
+                if (row[j] != 0) {
+                    targets[pos] = j;
+                    weights[pos] = row[j];
+                    pos++;
+                }
+            }
+        }
+
+        return new SparseGraph(n, offsets, targets, weights);
+    }
+
+    /**
+     * Builds an undirected sparse graph from an adjacency matrix, ignoring self
+     * loops. Vertices i and j are joined if either matrix[i][j] or matrix[j][i]
+     * is non-zero; if both are, the smaller weight is kept. Every edge is stored
+     * as two arcs.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The undirected sparse graph.
+     */
+    public static SparseGraph undirectedFromMatrix(double[][] adjacencyMatrix) {
+        int n = adjacencyMatrix.length;
+        int[] offsets = new int[n + 1];
+
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int j = 0; j < n; j++) {
+                if (i != j && (adjacencyMatrix[i][j] != 0 || adjacencyMatrix[j][i] != 0)) {
+                    count++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + count;
+        }
+
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int pos = offsets[i];
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    double weight = undirectedWeight(adjacencyMatrix[i][j], adjacencyMatrix[j][i]);
+                    if (weight != 0) {
+                        targets[pos] = j;
+                        weights[pos] = weight;
+                        pos++;
+                    }
+                }
+            }
+        }
+
+        return new SparseGraph(n, offsets, targets, weights);
+    }
+
+    /**
+     * Combines the two directed entries of a matrix into a single undirected
+     * edge weight. Zero entries mean "no arc".
+     *
+     * @param forward  The weight of the arc i to j.
+     * @param backward The weight of the arc j to i.
+     * @return The smaller non-zero weight, or 0 if neither arc exists.
+     */
+    public static double undirectedWeight(double forward, double backward) {
+        if (forward == 0) {
+            return backward;
+        }
+        if (backward == 0) {
+            return forward;
+        }
+        return Math.min(forward, backward);
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return The vertex count.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of stored arcs. An undirected edge counts twice.
+     *
+     * @return The arc count.
+     */
+    public int getArcCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the out-degree of a vertex.
+     *
+     * @param vertex The vertex.
+     * @return The number of arcs leaving the vertex.
+     */
+    public int getDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Returns the row offsets array. The array is shared and must not be
+     * modified.
+     *
+     * @return The offsets array.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns the arc targets array. The array is shared and must not be
+     * modified.
+     *
+     * @return The targets array.
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns the arc weights array. The array is shared and must not be
+     * modified.
+     *
+     * @return The weights array.
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Checks whether every arc has weight 1, in which case breadth-first search
+     * can replace Dijkstra's algorithm.
+     *
+     * @return True if the graph is unweighted, false otherwise.
+     */
+    public boolean isUnweighted() {
+        for (double weight : weights) {
+            if (weight != 1.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the graph with every arc reversed. Rows of the result are again
+     * sorted by target.
+     *
+     * @return The transposed graph.
+     */
+    public SparseGraph transpose() {
+        int[] transposedOffsets = new int[vertexCount + 1];
+        for (int target : targets) {
+            transposedOffsets[target + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            transposedOffsets[v + 1] += transposedOffsets[v];
+        }
+
+        int[] fill = Arrays.copyOf(transposedOffsets, vertexCount);
+        int[] transposedTargets = new int[targets.length];
+        double[] transposedWeights = new double[weights.length];
+        for (int u = 0; u < vertexCount; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int position = fill[targets[a]]++;
+                transposedTargets[position] = u;
+                transposedWeights[position] = weights[a];
+            }
+        }
+
+        return new SparseGraph(vertexCount, transposedOffsets, transposedTargets, transposedWeights);
+    }
+
+    /**
+     * Converts the graph back into a dense adjacency matrix.
+     *
+     * @return The adjacency matrix.
+     */
+    public double[][] toMatrix() {
+        double[][] matrix = new double[vertexCount][vertexCount];
+        for (int u = 0; u < vertexCount; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                matrix[u][targets[a]] = weights[a];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Example usage of the SparseGraph class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        double[][] adjacencyMatrix = {
+                { 0, 2, 0, 6 },
+                { 0, 0, 3, 0 },
+                { 0, 0, 0, 0 },
+                { 6, 0, 1, 0 }
+        };
+
+        SparseGraph directed = fromMatrix(adjacencyMatrix);
+        System.out.println("Arcs: " + directed.getArcCount());
+        System.out.println("Offsets: " + Arrays.toString(directed.getOffsets()));
+        System.out.println("Targets: " + Arrays.toString(directed.getTargets()));
+
+        SparseGraph undirected = undirectedFromMatrix(adjacencyMatrix);
+        System.out.println("Undirected Arcs: " + undirected.getArcCount());
+        System.out.println("Undirected Targets: " + Arrays.toString(undirected.getTargets()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.graphtools.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.traversal.Johnson;
+
+/**
+ * Streams the rows of an n x n distance matrix to a binary file of n * n
+ * little-endian doubles. Each row is written at its own position, so rows can
+ * arrive in any order and from several threads at once, which makes this
+ * writer a suitable sink for {@link Johnson#allPairs}.
+ */
+public class DistanceRowWriter implements Johnson.RowSink, Closeable {
+
+    private final FileChannel channel;
+    private final int size;
+    private final ThreadLocal<ByteBuffer> buffers;
+
+    /**
+     * Opens (and truncates) the file that will hold the distance matrix.
+     *
+     * @param filePath The path of the file to write.
+     * @param size     The number of vertices n.
+     * @throws IOException If the file cannot be opened.
+     */
+    public DistanceRowWriter(String filePath, int size) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.size = size;
+        this.buffers = ThreadLocal.withInitial(
+                () -> ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Writes one row at its position in the file.
+     *
+     * @param source    The row index.
+     * @param distances The row values.
+     */
+    @Override
+    public void accept(int source, double[] distances) {
+        ByteBuffer buffer = buffers.get();
+        buffer.clear();
+        buffer.asDoubleBuffer().put(distances, 0, size);
+        buffer.limit(size * Double.BYTES);
+
+        long position = (long) source * size * Double.BYTES;
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads one row back from a file written by this class.
+     *
+     * @param filePath The path of the file to read.
+     * @param size     The number of vertices n.
+     * @param source   The row index.
+     * @return The row values.
+     * @throws IOException If the file cannot be read.
+     */
+    public static double[] readRow(String filePath, int size, int source) throws IOException {
+        try (FileChannel in = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(size * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long position = (long) source * size * Double.BYTES;
+            while (buffer.hasRemaining()) {
+                int read = in.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file.");
+                }
+                position += read;
+            }
+            buffer.flip();
+            double[] row = new double[size];
+            buffer.asDoubleBuffer().get(row);
+            return row;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Example usage of DistanceRowWriter.
+     */
+    public static void main(String[] args) {
+        double[][] matrix = {
+                { 0.0, 1.0, 0.0 },
+                { 0.0, 0.0, 2.0 },
+                { 4.0, 0.0, 0.0 }
+        };
+        String filePath = "path/to/your/distances.bin";
+
+        try (DistanceRowWriter writer = new DistanceRowWriter(filePath, matrix.length)) {
+            Johnson.allPairs(SparseGraph.fromMatrix(matrix), writer);
+            System.out.println(Arrays.toString(readRow(filePath, matrix.length, 2)));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
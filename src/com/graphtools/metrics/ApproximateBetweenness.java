@@ -0,0 +1,627 @@
+package com.graphtools.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.utils.IndexedMinHeap;
+import com.graphtools.utils.MatrixValidator;
+
+/**
+ * Approximate betweenness centrality by shortest path sampling, after
+ * Riondato and Kornaropoulos. Each sample draws an ordered pair of distinct
+ * vertices uniformly at random, picks one of their shortest paths uniformly
+ * at random and credits the interior vertices of that path. With
+ * r = (c / eps^2) (floor(log2(VD - 2)) + 1 + ln(1 / delta)) samples, where VD
+ * bounds the number of vertices on any shortest path, every estimate is within
+ * eps of the true value with probability at least 1 - delta. The sample count
+ * depends on the vertex diameter, eps and delta but not on the graph size, and
+ * each sample runs a search that stops as soon as the target is settled.
+ * <p>
+ * Sampling also stops early, in the style of KADABRA, once an empirical
+ * Bernstein bound checked at geometrically spaced checkpoints shows that every
+ * estimate is already within eps, or, in top-k mode, once the k highest
+ * estimates are separated from the rest.
+ * <p>
+ * Estimates are on the scale of
+ * {@link BetweennessCentrality#compute(SparseGraph, boolean, boolean)} with
+ * normalisation enabled.
+ */
+public class ApproximateBetweenness {
+
+    /**
+     * The universal constant c of the sample size bound.
+     */
+    private static final double SAMPLE_CONSTANT = 0.5;
+
+    /**
+     * Number of samples taken before the first adaptive stopping check.
+     */
+    private static final long FIRST_CHECKPOINT = 256;
+
+    private ApproximateBetweenness() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * The outcome of a sampling run.
+     */
+    public static class Result {
+        private final double[] estimates;
+        private final long sampleCount;
+        private final long maxSampleCount;
+        private final double errorBound;
+        private final int[] topVertices;
+        private final boolean separated;
+
+        private Result(double[] estimates, long sampleCount, long maxSampleCount, double errorBound,
+                int[] topVertices, boolean separated) {
+            this.estimates = estimates;
+            this.sampleCount = sampleCount;
+            this.maxSampleCount = maxSampleCount;
+            this.errorBound = errorBound;
+            this.topVertices = topVertices;
+            this.separated = separated;
+        }
+
+        /**
+         * Returns the estimated normalised betweenness of every vertex.
+         *
+         * @return The estimates.
+         */
+        public double[] getEstimates() {
+            return estimates;
+        }
+
+        /**
+         * Returns the number of paths actually sampled.
+         *
+         * @return The sample count.
+         */
+        public long getSampleCount() {
+            return sampleCount;
+        }
+
+        /**
+         * Returns the number of samples that guarantees the requested error
+         * without adaptive stopping.
+         *
+         * @return The worst case sample count.
+         */
+        public long getMaxSampleCount() {
+            return maxSampleCount;
+        }
+
+        /**
+         * Returns the bound on the absolute error of every estimate that holds
+         * with the requested confidence. It may be smaller than the requested
+         * eps when sampling ran to completion.
+         *
+         * @return The error bound.
+         */
+        public double getErrorBound() {
+            return errorBound;
+        }
+
+        /**
+         * Returns the k vertices with the highest estimates, highest first, or
+         * null if the run was not in top-k mode.
+         *
+         * @return The top vertices.
+         */
+        public int[] getTopVertices() {
+            return topVertices;
+        }
+
+        /**
+         * Returns whether the top-k set was proven to be exact, i.e. the
+         * confidence interval of the k-th vertex lies above those of all
+         * others. If false, the set is still correct up to the error bound.
+         *
+         * @return True if the top-k set is separated.
+         */
+        public boolean isSeparated() {
+            return separated;
+        }
+    }
+
+    /**
+     * Estimates the betweenness of a graph given as an adjacency matrix. A
+     * symmetric matrix is treated as undirected.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @param epsilon         The maximum absolute error of every estimate.
+     * @param delta           The probability that the error bound fails.
+     * @return The sampling result.
+     */
+    public static Result estimate(double[][] adjacencyMatrix, double epsilon, double delta) {
+        boolean directed = adjacencyMatrix.length > 0 && !MatrixValidator.isSymmetric(adjacencyMatrix);
+        return estimate(SparseGraph.fromMatrix(adjacencyMatrix), directed, epsilon, delta, new SplittableRandom());
+    }
+
+    /**
+     * Estimates the betweenness of every vertex of a sparse graph.
+     *
+     * @param graph    The sparse graph, with positive arc weights.
+     * @param directed Whether the graph is directed.
+     * @param epsilon  The maximum absolute error of every estimate.
+     * @param delta    The probability that the error bound fails.
+     * @param seed     The seed of the random generator.
+     * @return The sampling result.
+     */
+    public static Result estimate(SparseGraph graph, boolean directed, double epsilon, double delta, long seed) {
+        return estimate(graph, directed, epsilon, delta, new SplittableRandom(seed));
+    }
+
+    /**
+     * Identifies the k most central vertices of a graph given as an adjacency
+     * matrix. A symmetric matrix is treated as undirected.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @param k               The number of vertices to return.
+     * @param epsilon         The maximum absolute error of every estimate.
+     * @param delta           The probability that the error bound fails.
+     * @return The sampling result, with the top vertices filled in.
+     */
+    public static Result topK(double[][] adjacencyMatrix, int k, double epsilon, double delta) {
+        boolean directed = adjacencyMatrix.length > 0 && !MatrixValidator.isSymmetric(adjacencyMatrix);
+        return run(SparseGraph.fromMatrix(adjacencyMatrix), directed, k, epsilon, delta, new SplittableRandom());
+    }
+
+    /**
+     * Identifies the k most central vertices of a sparse graph. Sampling stops
+     * as soon as the k-th highest estimate is provably above all the others,
+     * which for graphs with a few dominant vertices takes far fewer samples
+     * than estimating every vertex to within eps.
+     *
+     * @param graph    The sparse graph, with positive arc weights.
+     * @param directed Whether the graph is directed.
+     * @param k        The number of vertices to return.
+     * @param epsilon  The maximum absolute error of every estimate.
+     * @param delta    The probability that the error bound fails.
+     * @param seed     The seed of the random generator.
+     * @return The sampling result, with the top vertices filled in.
+     */
+    public static Result topK(SparseGraph graph, boolean directed, int k, double epsilon, double delta,
+            long seed) {
+        return run(graph, directed, k, epsilon, delta, new SplittableRandom(seed));
+    }
+
+    private static Result estimate(SparseGraph graph, boolean directed, double epsilon, double delta,
+            SplittableRandom random) {
+        return run(graph, directed, 0, epsilon, delta, random);
+    }
+
+    /**
+     * Runs the sampler.
+     *
+     * @param graph    The sparse graph.
+     * @param directed Whether the graph is directed.
+     * @param k        The number of top vertices wanted, or 0 for plain
+     *                 estimation.
+     * @param epsilon  The error bound on the normalised scale.
+     * @param delta    The failure probability.
+     * @param random   The random generator.
+     * @return The sampling result.
+     */
+    private static Result run(SparseGraph graph, boolean directed, int k, double epsilon, double delta,
+            SplittableRandom random) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Epsilon and delta must lie strictly between 0 and 1.");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative.");
+        }
+
+        int n = graph.getVertexCount();
+        double[] estimates = new double[n];
+        if (n <= 2) {
+            return new Result(estimates, 0, 0, 0.0, k > 0 ? topOf(estimates, new int[0], 0, k) : null, true);
+        }
+
+        // Sampling estimates the fraction of ordered pairs, which is n / (n - 2)
+        // times smaller than the normalised betweenness
+        double scale = n / (n - 2.0);
+        double target = epsilon / scale;
+
+        SparseGraph reverse = directed ? graph.transpose() : graph;
+        int vertexDiameter = vertexDiameterBound(graph, reverse, directed);
+        if (vertexDiameter <= 2) {
+            return new Result(estimates, 0, 0, 0.0, k > 0 ? topOf(estimates, new int[0], 0, k) : null, true);
+        }
+
+        // Half of the failure probability goes to the fixed size bound, half to
+        // the adaptive checks (union bound over checkpoints and vertices)
+        long maxSamples = (long) Math.ceil(SAMPLE_CONSTANT / (target * target)
+                * (floorLog2(vertexDiameter - 2) + 1 + Math.log(2.0 / delta)));
+        int checkpoints = 0;
+        for (long tau = FIRST_CHECKPOINT; tau < maxSamples; tau *= 2) {
+            checkpoints++;
+        }
+        double logTerm = Math.log(4.0 * Math.max(1, checkpoints) * n / delta);
+
+        Sampler sampler = new Sampler(graph, reverse);
+        long[] counts = new long[n];
+        int[] touched = new int[n];
+        int touchedCount = 0;
+
+        long samples = 0;
+        long nextCheckpoint = FIRST_CHECKPOINT;
+        double errorBound = target;
+        boolean separated = false;
+
+        while (samples < maxSamples) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n - 1);
+            if (t >= s) {
+                t++;
+            }
+            int interior = sampler.sample(s, t, random);
+            for (int i = 0; i < interior; i++) {
+                int v = sampler.path[i];
+                if (counts[v]++ == 0) {
+                    touched[touchedCount++] = v;
+                }
+            }
+            samples++;
+
+            if (samples == nextCheckpoint && samples < maxSamples) {
+                nextCheckpoint *= 2;
+                double widest = bernsteinHalfWidth(0, samples, logTerm);
+                for (int i = 0; i < touchedCount; i++) {
+                    widest = Math.max(widest, bernsteinHalfWidth(counts[touched[i]], samples, logTerm));
+                }
+                if (widest <= target) {
+                    errorBound = widest;
+                    break;
+                }
+                if (k > 0 && isSeparated(counts, touched, touchedCount, n, k, samples, logTerm)) {
+                    separated = true;
+                    errorBound = widest;
+                    break;
+                }
+            }
+        }
+
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            estimates[v] = scale * counts[v] / samples;
+        }
+
+        int[] top = null;
+        if (k > 0) {
+            separated = separated || isSeparated(counts, touched, touchedCount, n, k, samples, logTerm);
+            top = topOf(estimates, touched, touchedCount, k);
+        }
+
+        return new Result(estimates, samples, maxSamples, scale * errorBound, top, separated);
+    }
+
+    /**
+     * Returns the empirical Bernstein half-width (Maurer and Pontil) of the
+     * confidence interval of a Bernoulli mean.
+     *
+     * @param count   The number of successes.
+     * @param samples The number of trials.
+     * @param logTerm The logarithm of 2 / (per-vertex failure probability).
+     * @return The half-width.
+     */
+    private static double bernsteinHalfWidth(long count, long samples, double logTerm) {
+        double mean = (double) count / samples;
+        double variance = mean * (1.0 - mean) * samples / (samples - 1.0);
+        return Math.sqrt(2.0 * variance * logTerm / samples) + 7.0 * logTerm / (3.0 * (samples - 1.0));
+    }
+
+    /**
+     * Checks whether the lower confidence bound of the k-th highest estimate
+     * exceeds the upper bound of every vertex ranked below it. Only vertices
+     * that occurred on a sampled path are inspected; all others share the
+     * upper bound of a zero count.
+     */
+    private static boolean isSeparated(long[] counts, int[] touched, int touchedCount, int n, int k,
+            long samples, double logTerm) {
+        if (k >= n) {
+            return true;
+        }
+        if (k > touchedCount) {
+            return false;
+        }
+
+        Integer[] ranked = new Integer[touchedCount];
+        for (int i = 0; i < touchedCount; i++) {
+            ranked[i] = touched[i];
+        }
+        Arrays.sort(ranked, (a, b) -> Long.compare(counts[b], counts[a]));
+
+        long kth = counts[ranked[k - 1]];
+        double lower = (double) kth / samples - bernsteinHalfWidth(kth, samples, logTerm);
+        double upper = touchedCount < n ? bernsteinHalfWidth(0, samples, logTerm) : 0.0;
+        for (int i = k; i < touchedCount; i++) {
+            long count = counts[ranked[i]];
+            upper = Math.max(upper, (double) count / samples + bernsteinHalfWidth(count, samples, logTerm));
+        }
+        return lower > upper;
+    }
+
+    /**
+     * Returns the k vertices with the highest estimates. Vertices never seen
+     * on a sampled path fill up the list in index order.
+     */
+    private static int[] topOf(double[] estimates, int[] touched, int touchedCount, int k) {
+        int n = estimates.length;
+        int size = Math.min(k, n);
+        Integer[] ranked = new Integer[touchedCount];
+        for (int i = 0; i < touchedCount; i++) {
+            ranked[i] = touched[i];
+        }
+        Arrays.sort(ranked, (a, b) -> Double.compare(estimates[b], estimates[a]));
+
+        int[] top = new int[size];
+        int filled = 0;
+        for (int i = 0; i < touchedCount && filled < size; i++) {
+            top[filled++] = ranked[i];
+        }
+        for (int v = 0; v < n && filled < size; v++) {
+            if (estimates[v] == 0) {
+                top[filled++] = v;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Returns an upper bound on the number of vertices of any shortest path.
+     * For undirected unweighted graphs one breadth-first search per component
+     * gives 2 * eccentricity + 1; otherwise the size of the largest weakly
+     * connected component is used. The sample size only grows with the
+     * logarithm of this bound, so a loose bound costs little.
+     *
+     * @param graph    The sparse graph.
+     * @param reverse  The graph with every arc reversed (the graph itself if
+     *                 undirected).
+     * @param directed Whether the graph is directed.
+     * @return The vertex diameter bound.
+     */
+    static int vertexDiameterBound(SparseGraph graph, SparseGraph reverse, boolean directed) {
+        int n = graph.getVertexCount();
+        boolean exactSweep = !directed && graph.isUnweighted();
+        int[] level = new int[n];
+        int[] queue = new int[n];
+        Arrays.fill(level, -1);
+        int bound = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (level[root] >= 0) {
+                continue;
+            }
+            level[root] = 0;
+            queue[0] = root;
+            int head = 0;
+            int tail = 1;
+            int eccentricity = 0;
+            while (head < tail) {
+                int u = queue[head++];
+                eccentricity = Math.max(eccentricity, level[u]);
+                tail = visit(graph, u, level, queue, tail);
+                if (directed) {
+                    tail = visit(reverse, u, level, queue, tail);
+                }
+            }
+            bound = Math.max(bound, exactSweep ? Math.min(tail, 2 * eccentricity + 1) : tail);
+        }
+
+        return bound;
+    }
+
+    private static int visit(SparseGraph graph, int u, int[] level, int[] queue, int tail) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+            int v = targets[a];
+            if (level[v] < 0) {
+                level[v] = level[u] + 1;
+                queue[tail++] = v;
+            }
+        }
+        return tail;
+    }
+
+    private static int floorLog2(int value) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(1, value));
+    }
+
+    /**
+     * Reusable buffers for drawing one uniformly random shortest path between
+     * a pair of vertices. The forward search counts shortest paths (sigma) and
+     * stops once the target is settled; the walk back from the target then
+     * picks each predecessor with probability proportional to its path count.
+     */
+    private static class Sampler {
+        private final SparseGraph graph;
+        private final SparseGraph reverse;
+        private final boolean unweighted;
+        private final double[] distance;
+        private final double[] sigma;
+        private final int[] order;
+        private final IndexedMinHeap heap;
+        private final int[] path;
+
+        private Sampler(SparseGraph graph, SparseGraph reverse) {
+            int n = graph.getVertexCount();
+            this.graph = graph;
+            this.reverse = reverse;
+            this.unweighted = graph.isUnweighted();
+            this.distance = new double[n];
+            this.sigma = new double[n];
+            this.order = new int[n];
+            this.heap = unweighted ? null : new IndexedMinHeap(n);
+            this.path = new int[n];
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Samples a shortest path from s to t and stores its interior vertices
+         * in the path array.
+         *
+         * @return The number of interior vertices, 0 if t is unreachable.
+         */
+        private int sample(int s, int t, SplittableRandom random) {
+            int touched = unweighted ? searchBreadthFirst(s, t) : searchDijkstra(s, t);
+            int interior = 0;
+
+            if (distance[t] != Double.POSITIVE_INFINITY) {
+                int[] offsets = reverse.getOffsets();
+                int[] sources = reverse.getTargets();
+                double[] weights = reverse.getWeights();
+
+                int v = t;
+                while (true) {
+                    double threshold = random.nextDouble() * sigma[v];
+                    double sum = 0.0;
+                    int chosen = -1;
+                    for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                        int p = sources[a];
+                        if (distance[p] + (unweighted ? 1.0 : weights[a]) == distance[v]) {
+                            chosen = p;
+                            sum += sigma[p];
+                            if (sum > threshold) {
+                                break;
+                            }
+                        }
+                    }
+                    if (chosen == s) {
+                        break;
+                    }
+                    path[interior++] = chosen;
+                    v = chosen;
+                }
+            }
+
+            for (int i = 0; i < touched; i++) {
+                int v = order[i];
+                distance[v] = Double.POSITIVE_INFINITY;
+                sigma[v] = 0.0;
+            }
+            return interior;
+        }
+
+        /**
+         * Breadth-first search from s that stops once every vertex one level
+         * closer than t has been expanded, so sigma[t] is final.
+         *
+         * @return The number of vertices touched.
+         */
+        private int searchBreadthFirst(int s, int t) {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+
+            distance[s] = 0.0;
+            sigma[s] = 1.0;
+            order[0] = s;
+            int head = 0;
+            int tail = 1;
+
+            while (head < tail) {
+                int v = order[head++];
+                if (distance[v] >= distance[t]) {
+                    break;
+                }
+                double next = distance[v] + 1.0;
+                for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                    int w = targets[a];
+                    if (distance[w] == Double.POSITIVE_INFINITY) {
+                        distance[w] = next;
+                        order[tail++] = w;
+                    }
+                    if (distance[w] == next) {
+                        sigma[w] += sigma[v];
+                    }
+                }
+            }
+
+            return tail;
+        }
+
+        /**
+         * Dijkstra's algorithm from s that stops when t is settled.
+         *
+         * @return The number of vertices touched.
+         */
+        private int searchDijkstra(int s, int t) {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            double[] weights = graph.getWeights();
+
+            distance[s] = 0.0;
+            sigma[s] = 1.0;
+            order[0] = s;
+            int touched = 1;
+            heap.insertOrDecrease(s, 0.0);
+
+            while (!heap.isEmpty()) {
+                int v = heap.poll();
+                if (v == t) {
+                    break;
+                }
+                double dv = distance[v];
+                for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                    int w = targets[a];
+                    double candidate = dv + weights[a];
+                    if (candidate < distance[w]) {
+                        if (distance[w] == Double.POSITIVE_INFINITY) {
+                            order[touched++] = w;
+                        }
+                        distance[w] = candidate;
+                        sigma[w] = sigma[v];
+                        heap.insertOrDecrease(w, candidate);
+                    } else if (candidate == distance[w]) {
+                        sigma[w] += sigma[v];
+                    }
+                }
+            }
+
+            heap.clear();
+            return touched;
+        }
+    }
+
+    /**
+     * Example usage of the ApproximateBetweenness class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        // Random undirected graph with a few hubs
+        int n = 2000;
+        Random random = new Random(7);
+        double[][] adjacencyMatrix = new double[n][n];
+        for (int v = 1; v < n; v++) {
+            int hub = random.nextInt(Math.min(v, 20));
+            int other = random.nextInt(v);
+            adjacencyMatrix[v][hub] = adjacencyMatrix[hub][v] = 1;
+            adjacencyMatrix[v][other] = adjacencyMatrix[other][v] = 1;
+        }
+        SparseGraph graph = SparseGraph.fromMatrix(adjacencyMatrix);
+
+        long start = System.nanoTime();
+        double[] exact = BetweennessCentrality.compute(graph, false, true);
+        System.out.printf("Exact: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        Result result = estimate(graph, false, 0.01, 0.1, 42);
+        System.out.printf("Approximate: %.1f ms, %d of at most %d samples, error bound %.4f%n",
+                (System.nanoTime() - start) / 1e6, result.getSampleCount(), result.getMaxSampleCount(),
+                result.getErrorBound());
+
+        double maxError = 0.0;
+        for (int v = 0; v < n; v++) {
+            maxError = Math.max(maxError, Math.abs(exact[v] - result.getEstimates()[v]));
+        }
+        System.out.printf("Largest observed error: %.4f%n", maxError);
+
+        Result top = topK(graph, false, 5, 0.01, 0.1, 42);
+        System.out.println("Top 5: " + Arrays.toString(top.getTopVertices()) + " after " + top.getSampleCount()
+                + " samples (separated: " + top.isSeparated() + ")");
+    }
+}
@@ -0,0 +1,768 @@
+package com.graphtools.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * Biconnected components (blocks), articulation points and bridges of an
+ * undirected graph. A block is a maximal set of edges in which every two
+ * edges lie on a common simple cycle; an articulation point belongs to more
+ * than one block and a bridge is a block with a single edge.
+ * <p>
+ * The sequential algorithm is Hopcroft and Tarjan's depth-first search, run
+ * with explicit vertex and edge stacks so that deep graphs cannot overflow
+ * the call stack: a child w of u closes a block when low(w) &gt;= disc(u),
+ * and the edges above the tree edge (u, w) on the edge stack form it. The
+ * parallel algorithm is Tarjan and Vishkin's, which needs no depth-first
+ * search: it takes a breadth-first spanning forest, numbers it in preorder,
+ * computes for every subtree the lowest and highest preorder number reachable
+ * by one non-tree edge, and then joins tree edges that must share a block in
+ * an auxiliary graph. Its connected components, found with a concurrent
+ * union-find, are the blocks. Every step is a parallel loop over vertices,
+ * arcs or the vertices of one tree level.
+ * <p>
+ * Both return a block label for every arc, from which the articulation
+ * points, bridges and block-cut tree follow in O(n + m).
+ */
+public class BiconnectedComponents {
+
+    /**
+     * Below this many items a parallel loop runs on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    private BiconnectedComponents() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Block labels with the articulation points, bridges and block-cut tree
+     * derived from them.
+     */
+    public static class Result {
+        private final SparseGraph graph;
+        private final int[] arcBlocks;
+        private final int blockCount;
+        private final boolean[] articulation;
+        private final int[][] bridges;
+
+        private Result(SparseGraph graph, int[] arcBlocks, int blockCount, boolean[] articulation,
+                int[][] bridges) {
+            this.graph = graph;
+            this.arcBlocks = arcBlocks;
+            this.blockCount = blockCount;
+            this.articulation = articulation;
+            this.bridges = bridges;
+        }
+
+        /**
+         * Returns the block of every arc, in the order of the graph's CSR
+         * arrays; both arcs of an edge carry the same label. Self loops belong
+         * to no block and are labelled -1.
+         *
+         * @return The block labels, from 0 to {@link #getBlockCount()} - 1.
+         */
+        public int[] getArcBlocks() {
+            return arcBlocks;
+        }
+
+        public int getBlockCount() {
+            return blockCount;
+        }
+
+        /**
+         * Returns the block of the edge between u and v.
+         *
+         * @param u One endpoint.
+         * @param v The other endpoint.
+         * @return The block label, or -1 if there is no such edge.
+         */
+        public int getBlock(int u, int v) {
+            int[] offsets = graph.getOffsets();
+            int arc = Arrays.binarySearch(graph.getTargets(), offsets[u], offsets[u + 1], v);
+            return arc < 0 ? -1 : arcBlocks[arc];
+        }
+
+        /**
+         * Returns, for every vertex, whether removing it disconnects its
+         * component.
+         *
+         * @return The articulation point flags.
+         */
+        public boolean[] getArticulationFlags() {
+            return articulation;
+        }
+
+        /**
+         * Returns the articulation points in ascending order.
+         *
+         * @return The articulation points.
+         */
+        public int[] getArticulationPoints() {
+            int count = 0;
+            for (boolean flag : articulation) {
+                count += flag ? 1 : 0;
+            }
+            int[] points = new int[count];
+            count = 0;
+            for (int v = 0; v < articulation.length; v++) {
+                if (articulation[v]) {
+                    points[count++] = v;
+                }
+            }
+            return points;
+        }
+
+        /**
+         * Returns the bridges as {u, v} pairs with u &lt; v, in ascending
+         * order.
+         *
+         * @return The bridges.
+         */
+        public int[][] getBridges() {
+            return bridges;
+        }
+
+        /**
+         * Builds the block-cut tree (a forest for a disconnected graph).
+         *
+         * @return The block-cut tree.
+         */
+        public BlockCutTree getBlockCutTree() {
+            return new BlockCutTree(graph, arcBlocks, blockCount, articulation);
+        }
+    }
+
+    /**
+     * The block-cut tree: one node per block, numbered as the blocks, and one
+     * node per articulation point after them, with an edge between a block
+     * and every articulation point it contains.
+     */
+    public static class BlockCutTree {
+        private final SparseGraph tree;
+        private final int blockCount;
+        private final int[] cutVertices;
+        private final int[] node;
+
+        private BlockCutTree(SparseGraph graph, int[] arcBlocks, int blockCount, boolean[] articulation) {
+            int n = graph.getVertexCount();
+            int[] offsets = graph.getOffsets();
+            this.blockCount = blockCount;
+            this.node = new int[n];
+
+            int cutCount = 0;
+            for (boolean flag : articulation) {
+                cutCount += flag ? 1 : 0;
+            }
+            this.cutVertices = new int[cutCount];
+            cutCount = 0;
+            for (int v = 0; v < n; v++) {
+                node[v] = -1;
+                if (articulation[v]) {
+                    cutVertices[cutCount] = v;
+                    node[v] = blockCount + cutCount++;
+                } else {
+                    for (int a = offsets[v]; a < offsets[v + 1] && node[v] < 0; a++) {
+                        node[v] = arcBlocks[a];
+                    }
+                }
+            }
+
+            // The distinct blocks around every articulation point
+            int nodes = blockCount + cutCount;
+            int[] degree = new int[nodes];
+            int[] seen = new int[blockCount];
+            Arrays.fill(seen, -1);
+            int[][] pairs = new int[cutCount][];
+            for (int c = 0; c < cutCount; c++) {
+                int v = cutVertices[c];
+                int[] blocks = new int[offsets[v + 1] - offsets[v]];
+                int count = 0;
+                for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                    int block = arcBlocks[a];
+                    if (block >= 0 && seen[block] != v) {
+                        seen[block] = v;
+                        blocks[count++] = block;
+                        degree[block]++;
+                    }
+                }
+                degree[blockCount + c] = count;
+                pairs[c] = Arrays.copyOf(blocks, count);
+            }
+
+            int[] treeOffsets = new int[nodes + 1];
+            for (int x = 0; x < nodes; x++) {
+                treeOffsets[x + 1] = treeOffsets[x] + degree[x];
+            }
+            int[] fill = Arrays.copyOf(treeOffsets, nodes);
+            int[] targets = new int[treeOffsets[nodes]];
+            // Cut nodes are visited in ascending order, so block rows stay sorted
+            for (int c = 0; c < cutCount; c++) {
+                int cut = blockCount + c;
+                for (int block : pairs[c]) {
+                    targets[fill[block]++] = cut;
+                }
+            }
+            for (int c = 0; c < cutCount; c++) {
+                int cut = blockCount + c;
+                Arrays.sort(pairs[c]);
+                for (int block : pairs[c]) {
+                    targets[fill[cut]++] = block;
+                }
+            }
+            double[] weights = new double[targets.length];
+            Arrays.fill(weights, 1.0);
+            this.tree = new SparseGraph(nodes, treeOffsets, targets, weights);
+        }
+
+        /**
+         * Returns the tree as an undirected sparse graph, every edge stored as
+         * two arcs.
+         *
+         * @return The tree.
+         */
+        public SparseGraph getTree() {
+            return tree;
+        }
+
+        public int getBlockCount() {
+            return blockCount;
+        }
+
+        /**
+         * Returns the articulation point a cut node stands for.
+         *
+         * @param treeNode A node numbered at least {@link #getBlockCount()}.
+         * @return The articulation point.
+         */
+        public int getCutVertex(int treeNode) {
+            return cutVertices[treeNode - blockCount];
+        }
+
+        /**
+         * Returns the tree node of a vertex: its cut node if it is an
+         * articulation point, otherwise its only block.
+         *
+         * @param vertex The vertex.
+         * @return The tree node, or -1 for a vertex without edges.
+         */
+        public int getNode(int vertex) {
+            return node[vertex];
+        }
+    }
+
+    /**
+     * Computes the biconnected components of a graph given as an adjacency
+     * matrix. The matrix is read as an undirected graph: i and j are adjacent
+     * if either entry is non-zero, and self loops are ignored.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The blocks, articulation points and bridges.
+     */
+    public static Result compute(double[][] adjacencyMatrix) {
+        return compute(SparseGraph.undirectedFromMatrix(adjacencyMatrix));
+    }
+
+    /**
+     * Computes the biconnected components with an iterative Hopcroft-Tarjan
+     * search in O(n + m).
+     *
+     * @param graph An undirected graph without parallel edges, every edge
+     *              stored as two arcs (see
+     *              {@link SparseGraph#undirectedFromMatrix}).
+     * @return The blocks, articulation points and bridges.
+     */
+    public static Result compute(SparseGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] reverse = reverseArcs(graph);
+
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        int[] parentArc = new int[n];
+        int[] next = new int[n];
+        int[] stack = new int[n];
+        int[] edges = new int[targets.length];
+        int[] arcBlocks = new int[targets.length];
+        Arrays.fill(disc, -1);
+        Arrays.fill(arcBlocks, -1);
+        int time = 0;
+        int blocks = 0;
+
+        for (int s = 0; s < n; s++) {
+            if (disc[s] >= 0) {
+                continue;
+            }
+            int top = 0;
+            int edgeTop = 0;
+            stack[top++] = s;
+            disc[s] = low[s] = time++;
+            parentArc[s] = -1;
+            next[s] = offsets[s];
+
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (next[u] < offsets[u + 1]) {
+                    int a = next[u]++;
+                    int w = targets[a];
+                    if (parentArc[u] >= 0 && a == reverse[parentArc[u]]) {
+                        continue;
+                    }
+                    if (disc[w] < 0) {
+                        parentArc[w] = a;
+                        edges[edgeTop++] = a;
+                        disc[w] = low[w] = time++;
+                        next[w] = offsets[w];
+                        stack[top++] = w;
+                    } else if (disc[w] < disc[u]) {
+                        // Back edge to an ancestor
+                        edges[edgeTop++] = a;
+                        low[u] = Math.min(low[u], disc[w]);
+                    }
+                } else {
+                    top--;
+                    if (parentArc[u] < 0) {
+                        continue;
+                    }
+                    int p = stack[top - 1];
+                    low[p] = Math.min(low[p], low[u]);
+                    if (low[u] >= disc[p]) {
+                        // The edges above the tree edge (p, u) form a block
+                        int a;
+                        do {
+                            a = edges[--edgeTop];
+                            arcBlocks[a] = blocks;
+                            arcBlocks[reverse[a]] = blocks;
+                        } while (a != parentArc[u]);
+                        blocks++;
+                    }
+                }
+            }
+        }
+
+        return finish(graph, arcBlocks, blocks);
+    }
+
+    /**
+     * Computes the biconnected components with the Tarjan-Vishkin algorithm
+     * on the given pool, in O(n + m) work plus a term per breadth-first level.
+     *
+     * @param graph An undirected graph without parallel edges, every edge
+     *              stored as two arcs (see
+     *              {@link SparseGraph#undirectedFromMatrix}).
+     * @param pool  The pool running the parallel loops.
+     * @return The blocks, articulation points and bridges.
+     */
+    public static Result compute(SparseGraph graph, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        // Breadth-first spanning forest, its vertices listed level by level
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            parent.set(v, -2);
+        }
+        int[] order = new int[n];
+        int[] levelStart = new int[n + 1];
+        int levels = 0;
+        int[] roots = new int[n];
+        int rootCount = 0;
+        int ordered = 0;
+        for (int s = 0; s < n; s++) {
+            if (parent.get(s) != -2) {
+                continue;
+            }
+            parent.set(s, -1);
+            roots[rootCount++] = s;
+            order[ordered] = s;
+            levelStart[levels++] = ordered;
+            int from = ordered;
+            int to = ordered + 1;
+            while (from < to) {
+                int levelFrom = from;
+                int levelTo = to;
+                int[] counts = new int[Math.max(1, (levelTo - levelFrom + PARALLEL_THRESHOLD - 1)
+                        / PARALLEL_THRESHOLD)];
+                int[][] found = new int[counts.length][];
+                forEach(pool, counts.length, chunk -> {
+                    int chunkFrom = levelFrom + chunk * PARALLEL_THRESHOLD;
+                    int chunkTo = Math.min(levelTo, chunkFrom + PARALLEL_THRESHOLD);
+                    int[] buffer = new int[16];
+                    int count = 0;
+                    for (int i = chunkFrom; i < chunkTo; i++) {
+                        int u = order[i];
+                        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                            int w = targets[a];
+                            if (parent.get(w) == -2 && parent.compareAndSet(w, -2, u)) {
+                                if (count == buffer.length) {
+                                    buffer = Arrays.copyOf(buffer, 2 * count);
+                                }
+                                buffer[count++] = w;
+                            }
+                        }
+                    }
+                    found[chunk] = buffer;
+                    counts[chunk] = count;
+                });
+                int position = levelTo;
+                for (int chunk = 0; chunk < counts.length; chunk++) {
+                    System.arraycopy(found[chunk], 0, order, position, counts[chunk]);
+                    position += counts[chunk];
+                }
+                if (position > levelTo) {
+                    levelStart[levels++] = levelTo;
+                }
+                from = levelTo;
+                to = position;
+            }
+            ordered = to;
+        }
+        levelStart[levels] = n;
+
+        // Children lists of the forest
+        int[] childOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int p = parent.get(v);
+            if (p >= 0) {
+                childOffsets[p + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            childOffsets[v + 1] += childOffsets[v];
+        }
+        int[] children = new int[Math.max(0, n - rootCount)];
+        int[] fill = Arrays.copyOf(childOffsets, n);
+        for (int i = 0; i < n; i++) {
+            int v = order[i];
+            int p = parent.get(v);
+            if (p >= 0) {
+                children[fill[p]++] = v;
+            }
+        }
+
+        // Subtree sizes bottom-up, preorder numbers top-down
+        int[] size = new int[n];
+        int[] pre = new int[n];
+        for (int level = levels - 1; level >= 0; level--) {
+            int levelFrom = levelStart[level];
+            forEach(pool, levelStart[level + 1] - levelFrom, i -> {
+                int v = order[levelFrom + i];
+                int total = 1;
+                for (int c = childOffsets[v]; c < childOffsets[v + 1]; c++) {
+                    total += size[children[c]];
+                }
+                size[v] = total;
+            });
+        }
+        int numbered = 0;
+        for (int r = 0; r < rootCount; r++) {
+            pre[roots[r]] = numbered;
+            numbered += size[roots[r]];
+        }
+        for (int level = 0; level < levels; level++) {
+            int levelFrom = levelStart[level];
+            forEach(pool, levelStart[level + 1] - levelFrom, i -> {
+                int v = order[levelFrom + i];
+                int running = pre[v] + 1;
+                for (int c = childOffsets[v]; c < childOffsets[v + 1]; c++) {
+                    pre[children[c]] = running;
+                    running += size[children[c]];
+                }
+            });
+        }
+
+        // Lowest and highest preorder number reachable from each subtree by
+        // one non-tree edge
+        int[] low = new int[n];
+        int[] high = new int[n];
+        forEach(pool, n, v -> {
+            int lo = pre[v];
+            int hi = pre[v];
+            int p = parent.get(v);
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                int w = targets[a];
+                if (w != p && w != v && parent.get(w) != v) {
+                    lo = Math.min(lo, pre[w]);
+                    hi = Math.max(hi, pre[w]);
+                }
+            }
+            low[v] = lo;
+            high[v] = hi;
+        });
+        for (int level = levels - 1; level >= 0; level--) {
+            int levelFrom = levelStart[level];
+            forEach(pool, levelStart[level + 1] - levelFrom, i -> {
+                int v = order[levelFrom + i];
+                for (int c = childOffsets[v]; c < childOffsets[v + 1]; c++) {
+                    low[v] = Math.min(low[v], low[children[c]]);
+                    high[v] = Math.max(high[v], high[children[c]]);
+                }
+            });
+        }
+
+        // Auxiliary graph: vertex w stands for the tree edge (parent(w), w)
+        AtomicIntegerArray link = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            link.set(v, v);
+        }
+        forEach(pool, n, w -> {
+            int v = parent.get(w);
+            if (v >= 0 && parent.get(v) >= 0 && (low[w] < pre[v] || high[w] >= pre[v] + size[v])) {
+                // Some edge leaves the subtree of w around v: (parent(v), v)
+                // and (v, w) lie on a common cycle
+                union(link, w, v);
+            }
+            for (int a = offsets[w]; a < offsets[w + 1]; a++) {
+                int u = targets[a];
+                if (pre[u] < pre[w] && pre[w] >= pre[u] + size[u]) {
+                    // Non-tree edge between unrelated vertices
+                    union(link, u, w);
+                }
+            }
+        });
+
+        // A tree arc takes the label of its child, a non-tree arc that of its
+        // endpoint with the larger preorder number
+        int[] arcBlocks = new int[targets.length];
+        int[] label = new int[n];
+        Arrays.fill(label, -1);
+        int blocks = 0;
+        for (int i = 0; i < n; i++) {
+            int w = order[i];
+            if (parent.get(w) >= 0) {
+                int root = find(link, w);
+                if (label[root] < 0) {
+                    label[root] = blocks++;
+                }
+            }
+        }
+        forEach(pool, n, u -> {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int w = targets[a];
+                if (w == u) {
+                    arcBlocks[a] = -1;
+                } else if (parent.get(w) == u) {
+                    arcBlocks[a] = label[find(link, w)];
+                } else if (parent.get(u) == w) {
+                    arcBlocks[a] = label[find(link, u)];
+                } else {
+                    arcBlocks[a] = label[find(link, pre[u] > pre[w] ? u : w)];
+                }
+            }
+        });
+
+        return finish(graph, arcBlocks, blocks);
+    }
+
+    /**
+     * Derives the articulation points (vertices in two or more blocks) and the
+     * bridges (blocks of one edge) from the arc labels.
+     */
+    private static Result finish(SparseGraph graph, int[] arcBlocks, int blockCount) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        boolean[] articulation = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            int first = -1;
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                int block = arcBlocks[a];
+                if (block >= 0) {
+                    if (first < 0) {
+                        first = block;
+                    } else if (block != first) {
+                        articulation[v] = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        int[] arcsPerBlock = new int[blockCount];
+        for (int block : arcBlocks) {
+            if (block >= 0) {
+                arcsPerBlock[block]++;
+            }
+        }
+        int bridgeCount = 0;
+        for (int count : arcsPerBlock) {
+            bridgeCount += count == 2 ? 1 : 0;
+        }
+        int[][] bridges = new int[bridgeCount][];
+        bridgeCount = 0;
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int block = arcBlocks[a];
+                if (block >= 0 && targets[a] > u && arcsPerBlock[block] == 2) {
+                    bridges[bridgeCount++] = new int[] { u, targets[a] };
+                }
+            }
+        }
+
+        return new Result(graph, arcBlocks, blockCount, articulation, bridges);
+    }
+
+    /**
+     * Pairs every arc with its reverse. Rows are sorted, and the arcs into v
+     * are met in ascending order of their source, which is the order of v's
+     * own row.
+     */
+    static int[] reverseArcs(SparseGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int[] reverse = new int[targets.length];
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int v = targets[a];
+                int b = cursor[v]++;
+                if (b >= offsets[v + 1] || targets[b] != u) {
+                    throw new IllegalArgumentException("The graph must store every edge as two arcs.");
+                }
+                reverse[a] = b;
+            }
+        }
+        return reverse;
+    }
+
+    /**
+     * Lock-free find with path halving.
+     */
+    private static int find(AtomicIntegerArray link, int x) {
+        while (true) {
+            int p = link.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = link.get(p);
+            if (grandparent != p) {
+                link.compareAndSet(x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    /**
+     * Lock-free union, always hanging the larger root below the smaller.
+     */
+    private static void union(AtomicIntegerArray link, int a, int b) {
+        while (true) {
+            a = find(link, a);
+            b = find(link, b);
+            if (a == b) {
+                return;
+            }
+            if (a < b) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            if (link.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs body for 0 .. count - 1, in parallel on the pool unless the range
+     * is small.
+     */
+    private static void forEach(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(body)).join();
+        }
+    }
+
+    /**
+     * Example usage of the BiconnectedComponents class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        // Two triangles sharing vertex 2, and a pendant edge 4-5
+        double[][] adjacencyMatrix = {
+                { 0, 1, 1, 0, 0, 0 },
+                { 1, 0, 1, 0, 0, 0 },
+                { 1, 1, 0, 1, 1, 0 },
+                { 0, 0, 1, 0, 1, 0 },
+                { 0, 0, 1, 1, 0, 1 },
+                { 0, 0, 0, 0, 1, 0 }
+        };
+
+        Result result = compute(adjacencyMatrix);
+        System.out.println("Blocks: " + result.getBlockCount());
+        System.out.println("Articulation Points: " + Arrays.toString(result.getArticulationPoints()));
+        System.out.println("Bridges: " + Arrays.deepToString(result.getBridges()));
+        BlockCutTree tree = result.getBlockCutTree();
+        System.out.println("Block-Cut Tree Nodes: " + tree.getTree().getVertexCount());
+
+        // A long path with chords: a deep search without recursion
+        int n = 1000000;
+        Random random = new Random(41);
+        int[][] pairs = new int[n - 1 + n / 10][];
+        for (int v = 0; v + 1 < n; v++) {
+            pairs[v] = new int[] { v, v + 1 };
+        }
+        for (int e = n - 1; e < pairs.length; e++) {
+            int u = random.nextInt(n - 10);
+            pairs[e] = new int[] { u, u + 2 + random.nextInt(8) };
+        }
+        int[] degree = new int[n];
+        for (int[] pair : pairs) {
+            degree[pair[0]]++;
+            degree[pair[1]]++;
+        }
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int[] pair : pairs) {
+            targets[fill[pair[0]]++] = pair[1];
+            targets[fill[pair[1]]++] = pair[0];
+        }
+        // Drop repeated chords so there are no parallel edges
+        int[] compact = new int[n + 1];
+        int kept = 0;
+        for (int v = 0; v < n; v++) {
+            Arrays.sort(targets, offsets[v], offsets[v + 1]);
+            int rowStart = kept;
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                if (kept == rowStart || targets[kept - 1] != targets[a]) {
+                    targets[kept++] = targets[a];
+                }
+            }
+            compact[v + 1] = kept;
+        }
+        targets = Arrays.copyOf(targets, kept);
+        double[] weights = new double[kept];
+        Arrays.fill(weights, 1.0);
+        SparseGraph graph = new SparseGraph(n, compact, targets, weights);
+
+        long start = System.nanoTime();
+        Result sequential = compute(graph);
+        System.out.printf("Hopcroft-Tarjan: %d blocks, %d articulation points, %d bridges (%.1f ms)%n",
+                sequential.getBlockCount(), sequential.getArticulationPoints().length,
+                sequential.getBridges().length, (System.nanoTime() - start) / 1e6);
+        start = System.nanoTime();
+        Result parallel = compute(graph, ForkJoinPool.commonPool());
+        System.out.printf("Tarjan-Vishkin: %d blocks, %d articulation points, %d bridges (%.1f ms)%n",
+                parallel.getBlockCount(), parallel.getArticulationPoints().length, parallel.getBridges().length,
+                (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -4,8 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.graphtools.ranking.PageRank;
-import com.graphtools.traversal.Dijkstra;
-import com.graphtools.utils.MatrixOperations;
 
 public class CentralityMeasures {
 
@@ -14,68 +12,60 @@ public class CentralityMeasures {
     }
 
     /**
-     * Calculates the closeness centrality for each vertex in the graph.
+     * Calculates the closeness centrality for each vertex in the graph, from
+     * one shortest path search per vertex run in parallel. Vertices that
+     * cannot reach every other vertex are scored with the Wasserman-Faust
+     * correction, and a vertex reaching nothing scores 0.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
      * @return A list of closeness centrality values for each vertex in the graph.
+     * @see ClosenessCentrality for the sampling estimator used on large graphs.
      */
     public static List<Double> calculateClosenessCentrality(double[][] adjacencyMatrix) {
-        int n = adjacencyMatrix.length;
+        double[] closeness = ClosenessCentrality.closeness(adjacencyMatrix);
         List<Double> centralityList = new ArrayList<>();
 
-        for (int i = 0; i < n; i++) {
-            double closenessCentrality = calculateCloseness(adjacencyMatrix, i);
-            centralityList.add(closenessCentrality);
+        for (double centrality : closeness) {
+            centralityList.add(centrality);
         }
 
         return centralityList;
     }
 
     /**
-     * Calculates the closeness centrality for a specific vertex in the graph.
+     * Calculates the harmonic centrality for each vertex in the graph: the
+     * mean of the inverse distances to all other vertices, where unreachable
+     * vertices contribute 0.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
-     * @param vertex          The index of the vertex for which to calculate the
-     *                        closeness centrality.
-     * @return The closeness centrality value for the specified vertex.
+     * @return A list of harmonic centrality values for each vertex in the graph.
      */
-    private static double calculateCloseness(double[][] adjacencyMatrix, int vertex) {
-        int n = adjacencyMatrix.length;
-        double totalDistance = 0;
-
-        for (int i = 0; i < n; i++) {
-            if (i == vertex)
-                continue;
-
-            double[] currentShortestPaths = Dijkstra.shortestPath(adjacencyMatrix, vertex, i);
-            if (isValidShortestPath(currentShortestPaths)) {
-                for (double distance : currentShortestPaths) {
-                    totalDistance += distance;
-                }
-            }
-        }
+    public static List<Double> getHarmonicCentralities(double[][] adjacencyMatrix) {
+        double[] harmonic = ClosenessCentrality.harmonic(adjacencyMatrix);
+        List<Double> centralities = new ArrayList<>();
 
-        if (totalDistance == 0) {
-            // Handle the case where totalDistance is 0 to avoid division by zero
-            return 0;
+        for (double centrality : harmonic) {
+            centralities.add(centrality);
         }
 
-        return (n - 1) / totalDistance;
+        return centralities;
     }
 
     /**
      * Computes the betweenness centrality of all vertices in a graph represented by
-     * an adjacency matrix.
+     * an adjacency matrix, using Brandes' algorithm. A symmetric matrix is
+     * treated as an undirected graph.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
      * @return The list of betweenness centralities for all vertices.
+     * @see BetweennessCentrality#compute(double[][], boolean) for the primitive,
+     *      optionally normalised variant.
      */
     public static List<Double> getBetweennessCentralities(double[][] adjacencyMatrix) {
-        int vertexCount = adjacencyMatrix.length;
+        double[] betweenness = BetweennessCentrality.compute(adjacencyMatrix, false);
         List<Double> centralities = new ArrayList<>();
 
-        for (int vertex = 0; vertex < vertexCount; vertex++) {
-            double centrality = computeBetweennessCentrality(adjacencyMatrix, vertex);
+        for (double centrality : betweenness) {
             centralities.add(centrality);
         }
 
@@ -83,94 +73,50 @@ public class CentralityMeasures {
     }
 
     /**
-     * Computes the betweenness centrality of a specific vertex in a graph.
+     * Estimates the normalised betweenness centrality of all vertices by
+     * shortest path sampling. Every value is within epsilon of the exact
+     * normalised betweenness with probability at least 1 - delta, and the
+     * number of sampled paths does not grow with the number of vertices.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
-     * @param vertex          The vertex for which to compute the betweenness
-     *                        centrality.
-     * @return The betweenness centrality of the vertex.
+     * @param epsilon         The maximum absolute error, e.g. 0.01.
+     * @param delta           The probability that the error bound fails.
+     * @return The list of estimated normalised betweenness centralities.
+     * @see ApproximateBetweenness for the sampling engine and its top-k mode.
      */
-    private static double computeBetweennessCentrality(double[][] adjacencyMatrix, int vertex) {
-        int vertexCount = adjacencyMatrix.length;
-        double centrality = 0.0;
+    public static List<Double> getApproximateBetweennessCentralities(double[][] adjacencyMatrix, double epsilon,
+            double delta) {
+        double[] estimates = ApproximateBetweenness.estimate(adjacencyMatrix, epsilon, delta).getEstimates();
+        List<Double> centralities = new ArrayList<>();
 
-        // Iterate over all pairs of vertices (i, j) except the given vertex
-        for (int i = 0; i < vertexCount; i++) {
-            for (int j = 0; j < vertexCount; j++) {
-                if (i != j && i != vertex && j != vertex) {
-                    double[] shortestPath = Dijkstra.shortestPath(adjacencyMatrix, i, j);
-                    if (isValidShortestPath(shortestPath)) {
-                        int shortestPathsCount = countShortestPathsPassingThroughVertex(
-                                adjacencyMatrix, i, j, vertex);
-                        double contribution = computeContribution(shortestPathsCount, shortestPath);
-                        centrality += contribution;
-                    }
-                }
-            }
+        for (double centrality : estimates) {
+            centralities.add(centrality);
         }
 
-        return centrality;
-    }
-
-    /**
-     * Checks if the shortest path array is valid and contains a non-infinite
-     * shortest path.
-     *
-     * @param shortestPath The array representing the shortest path.
-     * @return True if the shortest path is valid, false otherwise.
-     */
-    private static boolean isValidShortestPath(double[] shortestPath) {
-        return shortestPath.length > 0 && shortestPath[0] != Double.MAX_VALUE && shortestPath[0] > 0;
+        return centralities;
     }
 
     /**
-     * Counts the number of shortest paths passing through a specific vertex using
-     * Dijkstra's algorithm.
+     * Identifies the k vertices with the highest betweenness centrality by
+     * shortest path sampling, without estimating every vertex to full
+     * accuracy.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
-     * @param source          The source vertex.
-     * @param destination     The destination vertex.
-     * @param vertex          The vertex to be included in the path.
-     * @return The number of shortest paths passing through the specified vertex.
+     * @param k               The number of vertices to return.
+     * @param epsilon         The maximum absolute error of the estimates.
+     * @param delta           The probability that the error bound fails.
+     * @return The most central vertices, highest first.
      */
-    private static int countShortestPathsPassingThroughVertex(double[][] adjacencyMatrix, int source, int destination,
-            int vertex) {
-        int vertexCount = adjacencyMatrix.length;
-        int count = 0;
+    public static List<Integer> getTopBetweennessVertices(double[][] adjacencyMatrix, int k, double epsilon,
+            double delta) {
+        int[] top = ApproximateBetweenness.topK(adjacencyMatrix, k, epsilon, delta).getTopVertices();
+        List<Integer> vertices = new ArrayList<>();
 
-        for (int i = 0; i < vertexCount; i++) {
-            if (i != source && i != destination && i != vertex) {
-                double[] shortestPathSourceToVertex = Dijkstra.shortestPath(adjacencyMatrix, source, i);
-                double[] shortestPathVertexToDestination = Dijkstra.shortestPath(adjacencyMatrix, i, destination);
-
-                if (isValidShortestPath(shortestPathSourceToVertex)
-                        && isValidShortestPath(shortestPathVertexToDestination)
-                        && (shortestPathSourceToVertex[0] + shortestPathVertexToDestination[0] == Dijkstra.shortestPath(
-                                adjacencyMatrix, source, destination)[0])) {
-                    count++;
-
-                }
-            }
+        for (int vertex : top) {
+            vertices.add(vertex);
         }
 
-        return count;
-    }
-
-    /**
-     * Computes the contribution of a specific pair (i, j) to the centrality.
-     *
-     * @param shortestPathsCount The number of shortest paths passing through the
-     *                           vertex.
-     * @param shortestPath       The shortest path distances array.
-     * @return The contribution to the centrality.
-     */
-    private static double computeContribution(int shortestPathsCount, double[] shortestPath) {
-        double shortestPathLength = shortestPath[0];
-        if (shortestPathLength != 0) {
-            return shortestPathsCount / shortestPathLength;
-        } else {
-            return 0.0;
-        }
+        return vertices;
     }
 
     /**
@@ -195,32 +141,68 @@ public class CentralityMeasures {
 
     /**
      * Computes the Katz centrality of all vertices in a graph represented by an
-     * adjacency matrix.
+     * adjacency matrix, by iterating x = 1 + alpha A x over the sparse graph
+     * instead of inverting I - alpha A.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
-     * @param alpha           The attenuation factor.
+     * @param alpha           The attenuation factor, below 1 / lambda_max.
      * @return The list of Katz centralities for all vertices.
+     * @see KatzCentrality for the iteration and its convergence information.
      */
     public static List<Double> getKatzCentralities(double[][] adjacencyMatrix, double alpha) {
-        int vertexCount = adjacencyMatrix.length;
-        double[][] identityMatrix = MatrixOperations.createIdentityMatrix(vertexCount);
-        double[][] katzMatrix = MatrixOperations.subtract(identityMatrix,
-                MatrixOperations.scalarMultiply(adjacencyMatrix, alpha));
-        double[][] inverseKatzMatrix = MatrixOperations.inverse(katzMatrix);
-
-        if (inverseKatzMatrix == null) {
-            throw new IllegalArgumentException(
-                    "The inverse matrix is null. The adjacency matrix may not be invertible.");
+        return katzScores(KatzCentrality.compute(adjacencyMatrix, alpha));
+    }
+
+    /**
+     * Computes the Katz centrality of all vertices with alpha chosen
+     * automatically below 1 / lambda_max, so the computation always
+     * converges for non-negative weights.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The list of Katz centralities for all vertices.
+     */
+    public static List<Double> getKatzCentralities(double[][] adjacencyMatrix) {
+        return katzScores(KatzCentrality.compute(adjacencyMatrix));
+    }
+
+    /**
+     * Converts Katz scores to a list, rejecting an iteration that did not
+     * converge.
+     *
+     * @param result The Katz result.
+     * @return The list of Katz centralities.
+     */
+    private static List<Double> katzScores(KatzCentrality.Result result) {
+        if (!result.isConverged()) {
+            throw new IllegalArgumentException("The Katz iteration did not converge. Alpha " + result.getAlpha()
+                    + " may not be below 1 / lambda_max.");
         }
 
         List<Double> centralities = new ArrayList<>();
 
-        for (int vertex = 0; vertex < vertexCount; vertex++) {
-            double katzCentrality = 0.0;
-            for (int j = 0; j < vertexCount; j++) {
-                katzCentrality += inverseKatzMatrix[vertex][j];
-            }
-            centralities.add(katzCentrality);
+        for (double centrality : result.getScores()) {
+            centralities.add(centrality);
+        }
+
+        return centralities;
+    }
+
+    /**
+     * Computes the eigenvector centrality of all vertices in a graph
+     * represented by an adjacency matrix: the dominant eigenvector of the
+     * transposed matrix, scaled to unit length.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The list of eigenvector centralities for all vertices.
+     * @see EigenvectorCentrality for the accelerated variants and the
+     *      convergence diagnostics.
+     */
+    public static List<Double> getEigenvectorCentralities(double[][] adjacencyMatrix) {
+        PowerIteration.Result result = EigenvectorCentrality.compute(adjacencyMatrix);
+        List<Double> centralities = new ArrayList<>();
+
+        for (double centrality : result.getVector()) {
+            centralities.add(centrality);
         }
 
         return centralities;
@@ -265,6 +247,13 @@ public class CentralityMeasures {
             System.out.println("Vertex " + i + ": " + closenessCentralities.get(i));
         }
 
+        // Calculate the harmonic centrality
+        List<Double> harmonicCentralities = CentralityMeasures.getHarmonicCentralities(adjacencyMatrix);
+        System.out.println("Harmonic Centralities:");
+        for (int i = 0; i < harmonicCentralities.size(); i++) {
+            System.out.println("Vertex " + i + ": " + harmonicCentralities.get(i));
+        }
+
         // Calculate the betweenness centrality
         List<Double> betweennessCentralities = CentralityMeasures.getBetweennessCentralities(adjacencyMatrix);
         System.out.println("Betweenness Centralities:");
@@ -272,6 +261,14 @@ public class CentralityMeasures {
             System.out.println("Vertex " + i + ": " + betweennessCentralities.get(i));
         }
 
+        // Estimate the betweenness centrality to within 0.01
+        List<Double> approximateBetweenness = CentralityMeasures.getApproximateBetweennessCentralities(adjacencyMatrix,
+                0.01, 0.1);
+        System.out.println("Approximate Normalised Betweenness Centralities:");
+        for (int i = 0; i < approximateBetweenness.size(); i++) {
+            System.out.println("Vertex " + i + ": " + approximateBetweenness.get(i));
+        }
+
         // Calculate the degree centrality
         List<Double> degreeCentralities = CentralityMeasures.getDegreeCentralities(adjacencyMatrix);
         System.out.println("Degree Centralities:");
@@ -279,16 +276,18 @@ public class CentralityMeasures {
             System.out.println("Vertex " + i + ": " + degreeCentralities.get(i));
         }
 
-        // Calculate the Katz centrality
-        // Only calculate Katz Centralities if the matrix determinant is non-zero and
-        // matrix can be inversed.
-        if (MatrixOperations.determinant(adjacencyMatrix) != 0 && MatrixOperations.inverse(adjacencyMatrix) != null) {
-            double alpha = 0.5;
-            List<Double> katzCentralities = CentralityMeasures.getKatzCentralities(adjacencyMatrix, alpha);
-            System.out.println("Katz Centralities:");
-            for (int i = 0; i < katzCentralities.size(); i++) {
-                System.out.println("Vertex " + i + ": " + katzCentralities.get(i));
-            }
+        // Calculate the Katz centrality, with alpha chosen below 1 / lambda_max
+        List<Double> katzCentralities = CentralityMeasures.getKatzCentralities(adjacencyMatrix);
+        System.out.println("Katz Centralities:");
+        for (int i = 0; i < katzCentralities.size(); i++) {
+            System.out.println("Vertex " + i + ": " + katzCentralities.get(i));
+        }
+
+        // Calculate the eigenvector centrality
+        List<Double> eigenvectorCentralities = CentralityMeasures.getEigenvectorCentralities(adjacencyMatrix);
+        System.out.println("Eigenvector Centralities:");
+        for (int i = 0; i < eigenvectorCentralities.size(); i++) {
+            System.out.println("Vertex " + i + ": " + eigenvectorCentralities.get(i));
         }
 
         // Calculate the PageRank centrality
@@ -1,5 +1,20 @@
 package com.graphtools.metrics;
 
+import java.util.Arrays;
+
+import com.graphtools.flow.FlowNetwork;
+import com.graphtools.flow.MinimumCut;
+import com.graphtools.graph.DegreeProfile;
+import com.graphtools.graph.Graph;
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.utils.MatrixValidator;
+
+/**
+ * Exact vertex and edge connectivity. A symmetric adjacency matrix is read as
+ * an undirected graph, any other as a directed graph, in which case the
+ * measures refer to strong connectivity. Edge weights are ignored: every
+ * non-zero entry is one edge.
+ */
 public class ConnectivityMeasures {
 
     private ConnectivityMeasures() {
@@ -8,42 +23,266 @@ public class ConnectivityMeasures {
 
     /**
      * Computes the vertex connectivity of a graph represented by an adjacency
-     * matrix.
+     * matrix: the smallest number of vertices whose removal disconnects the
+     * graph, or n - 1 for a complete graph.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
      * @return The vertex connectivity of the graph.
      */
     public static int getVertexConnectivity(double[][] adjacencyMatrix) {
-        int minDegree = Integer.MAX_VALUE;
-        for (int i = 0; i < adjacencyMatrix.length; i++) {
-            int degree = DegreeMeasures.getVertexOutDegree(adjacencyMatrix, i);
-            if (degree < minDegree) {
-                minDegree = degree;
+        boolean directed = adjacencyMatrix.length > 0 && !MatrixValidator.isSymmetric(adjacencyMatrix);
+        return getVertexConnectivity(unitGraph(adjacencyMatrix, directed), directed);
+    }
+
+    /**
+     * Computes the vertex connectivity of a graph, taking the minimum degree
+     * bound from the graph's cached degree profile.
+     *
+     * @param graph The graph.
+     * @return The vertex connectivity of the graph.
+     */
+    public static int getVertexConnectivity(Graph graph) {
+        boolean directed = graph.isDirected();
+        return vertexConnectivity(unitGraph(graph.getAdjacencyMatrix(), directed), directed, minimumDegree(graph));
+    }
+
+    /**
+     * Computes the vertex connectivity with Even's algorithm. Every vertex v
+     * is split into v_in and v_out joined by a unit capacity arc, so a maximum
+     * flow from u_out to w_in counts internally vertex-disjoint paths. If
+     * v_1 .. v_n is any vertex order, some v_i with i at most k + 1 lies
+     * outside a minimum separator of size k, so only sources v_1 .. v_(k+1)
+     * need to be tried against the non-adjacent vertices after them. Each flow
+     * stops as soon as it reaches the best separator found so far, which
+     * starts at the minimum degree.
+     *
+     * @param graph    The sparse graph, without self loops. An undirected
+     *                 graph stores every edge as two arcs.
+     * @param directed Whether the graph is directed.
+     * @return The vertex connectivity of the graph.
+     */
+    public static int getVertexConnectivity(SparseGraph graph, boolean directed) {
+        return vertexConnectivity(graph, directed, minimumDegree(graph, directed));
+    }
+
+    private static int vertexConnectivity(SparseGraph graph, boolean directed, int minimumDegree) {
+        int n = graph.getVertexCount();
+        if (n <= 1) {
+            return 0;
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        int best = minimumDegree;
+        if (best == 0) {
+            return 0;
+        }
+
+        // Vertex v becomes v_in = v and v_out = v + n
+        int arcCount = graph.getArcCount();
+        int[] tails = new int[n + arcCount];
+        int[] heads = new int[n + arcCount];
+        double[] capacities = new double[n + arcCount];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            tails[count] = v;
+            heads[count] = v + n;
+            capacities[count] = 1.0;
+            count++;
+        }
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                if (targets[a] != u) {
+                    tails[count] = u + n;
+                    heads[count] = targets[a];
+                    capacities[count] = n;
+                    count++;
+                }
+            }
+        }
+        FlowNetwork network = new FlowNetwork(2 * n, Arrays.copyOf(tails, count), Arrays.copyOf(heads, count),
+                Arrays.copyOf(capacities, count), false);
+
+        for (int i = 0; i <= best && i < n; i++) {
+            for (int j = i + 1; j < n && best > 0; j++) {
+                if (!isAdjacent(graph, i, j)) {
+                    network.reset();
+                    best = Math.min(best, (int) network.augmentingPathFlow(i + n, j, best));
+                }
+                if (directed && !isAdjacent(graph, j, i)) {
+                    network.reset();
+                    best = Math.min(best, (int) network.augmentingPathFlow(j + n, i, best));
+                }
             }
         }
-        return minDegree;
+
+        return best;
     }
 
     /**
-     * Computes the edge connectivity of a graph represented by an adjacency matrix.
+     * Computes the edge connectivity of a graph represented by an adjacency
+     * matrix: the smallest number of edges whose removal disconnects the
+     * graph.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
      * @return The edge connectivity of the graph.
      */
     public static int getEdgeConnectivity(double[][] adjacencyMatrix) {
-        int minDegree = Integer.MAX_VALUE;
-        for (int i = 0; i < adjacencyMatrix.length; i++) {
-            int degree = 0;
-            for (int j = 0; j < adjacencyMatrix[i].length; j++) {
-                if (adjacencyMatrix[i][j] != 0) {
-                    degree++;
+        boolean directed = adjacencyMatrix.length > 0 && !MatrixValidator.isSymmetric(adjacencyMatrix);
+        return getEdgeConnectivity(unitGraph(adjacencyMatrix, directed), directed);
+    }
+
+    /**
+     * Computes the edge connectivity of a graph, taking the minimum degree
+     * bound from the graph's cached degree profile.
+     *
+     * @param graph The graph.
+     * @return The edge connectivity of the graph.
+     */
+    public static int getEdgeConnectivity(Graph graph) {
+        boolean directed = graph.isDirected();
+        return edgeConnectivity(unitGraph(graph.getAdjacencyMatrix(), directed), directed, minimumDegree(graph));
+    }
+
+    /**
+     * Computes the edge connectivity. An undirected graph is solved as a
+     * global minimum cut with unit weights ({@link MinimumCut}), which needs
+     * no flow computations at all. A directed graph needs, for a fixed vertex
+     * s, the smallest of the maximum flows from s to every other vertex and
+     * back (Even and Tarjan), each stopped at the best cut found so far.
+     *
+     * @param graph    The sparse graph, without self loops. An undirected
+     *                 graph stores every edge as two arcs.
+     * @param directed Whether the graph is directed.
+     * @return The edge connectivity of the graph.
+     */
+    public static int getEdgeConnectivity(SparseGraph graph, boolean directed) {
+        return edgeConnectivity(graph, directed, directed ? minimumDegree(graph, true) : 0);
+    }
+
+    /**
+     * The minimum degree is only used, as the starting bound, for directed
+     * graphs.
+     */
+    private static int edgeConnectivity(SparseGraph graph, boolean directed, int minimumDegree) {
+        int n = graph.getVertexCount();
+        if (n <= 1) {
+            return 0;
+        }
+        SparseGraph unit = withUnitWeights(graph);
+        if (!directed) {
+            return (int) Math.round(MinimumCut.global(unit).getWeight());
+        }
+
+        int best = minimumDegree;
+        FlowNetwork network = FlowNetwork.fromSparseGraph(unit, false);
+        for (int v = 1; v < n && best > 0; v++) {
+            network.reset();
+            best = Math.min(best, (int) network.augmentingPathFlow(0, v, best));
+            network.reset();
+            best = Math.min(best, (int) network.augmentingPathFlow(v, 0, best));
+        }
+        return best;
+    }
+
+    /**
+     * Finds the articulation points of a graph represented by an adjacency
+     * matrix, read as an undirected graph: the vertices whose removal
+     * disconnects their component.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The articulation points in ascending order.
+     * @see BiconnectedComponents for the blocks and the block-cut tree.
+     */
+    public static int[] getArticulationPoints(double[][] adjacencyMatrix) {
+        return BiconnectedComponents.compute(adjacencyMatrix).getArticulationPoints();
+    }
+
+    /**
+     * Finds the bridges of a graph represented by an adjacency matrix, read
+     * as an undirected graph: the edges whose removal disconnects their
+     * component.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The bridges as {u, v} pairs with u &lt; v.
+     */
+    public static int[][] getBridges(double[][] adjacencyMatrix) {
+        return BiconnectedComponents.compute(adjacencyMatrix).getBridges();
+    }
+
+    /**
+     * Returns the minimum degree, an upper bound on both connectivities. For
+     * a directed graph in- and out-degrees are both considered.
+     */
+    private static int minimumDegree(SparseGraph graph, boolean directed) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] outDegree = new int[n];
+        int[] inDegree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                if (targets[a] != u) {
+                    outDegree[u]++;
+                    inDegree[targets[a]]++;
                 }
             }
-            if (degree < minDegree) {
-                minDegree = degree;
+        }
+        int minimum = Integer.MAX_VALUE;
+        for (int v = 0; v < n; v++) {
+            minimum = Math.min(minimum, directed ? Math.min(outDegree[v], inDegree[v]) : outDegree[v]);
+        }
+        return minimum;
+    }
+
+    /**
+     * Returns the minimum degree from the cached degree profile, with self
+     * loops discounted.
+     */
+    private static int minimumDegree(Graph graph) {
+        DegreeProfile profile = graph.getDegreeProfile();
+        int[] outDegree = profile.getOutDegrees();
+        int[] inDegree = profile.getInDegrees();
+        int minimum = Integer.MAX_VALUE;
+        for (int v = 0; v < outDegree.length; v++) {
+            int loop = graph.hasEdge(v, v) ? 1 : 0;
+            int degree = outDegree[v] - loop;
+            if (graph.isDirected()) {
+                degree = Math.min(degree, inDegree[v] - loop);
             }
+            minimum = Math.min(minimum, degree);
+        }
+        return minimum;
+    }
+
+    private static boolean isAdjacent(SparseGraph graph, int u, int v) {
+        int[] offsets = graph.getOffsets();
+        return Arrays.binarySearch(graph.getTargets(), offsets[u], offsets[u + 1], v) >= 0;
+    }
+
+    /**
+     * Converts a matrix to a sparse graph without self loops and with unit
+     * weights.
+     */
+    private static SparseGraph unitGraph(double[][] adjacencyMatrix, boolean directed) {
+        if (!directed) {
+            return withUnitWeights(SparseGraph.undirectedFromMatrix(adjacencyMatrix));
         }
-        return minDegree;
+        double[][] withoutLoops = new double[adjacencyMatrix.length][];
+        for (int i = 0; i < withoutLoops.length; i++) {
+            withoutLoops[i] = adjacencyMatrix[i].clone();
+            withoutLoops[i][i] = 0;
+        }
+        return withUnitWeights(SparseGraph.fromMatrix(withoutLoops));
+    }
+
+    private static SparseGraph withUnitWeights(SparseGraph graph) {
+        if (graph.isUnweighted()) {
+            return graph;
+        }
+        double[] weights = new double[graph.getArcCount()];
+        Arrays.fill(weights, 1.0);
+        return new SparseGraph(graph.getVertexCount(), graph.getOffsets(), graph.getTargets(), weights);
     }
 
     public static void main(String[] args) {
@@ -59,5 +298,8 @@ public class ConnectivityMeasures {
 
         int edgeConnectivity = getEdgeConnectivity(adjacencyMatrix);
         System.out.println("Edge Connectivity: " + edgeConnectivity);
+
+        System.out.println("Articulation Points: " + Arrays.toString(getArticulationPoints(adjacencyMatrix)));
+        System.out.println("Bridges: " + Arrays.deepToString(getBridges(adjacencyMatrix)));
     }
-}
\ No newline at end of file
+}
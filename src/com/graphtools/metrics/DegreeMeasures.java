@@ -3,6 +3,10 @@ package com.graphtools.metrics;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.graphtools.graph.DegreeProfile;
+import com.graphtools.graph.Graph;
+import com.graphtools.graph.SparseGraph;
+
 /**
  * 
  */
@@ -35,16 +39,55 @@ public class DegreeMeasures {
 
     /**
      * Computes the degrees of all vertices in a graph represented by an adjacency
-     * matrix.
+     * matrix: the in-degree plus the out-degree of every vertex, from a single
+     * pass over the matrix.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
      * @return The list of vertex degrees.
      */
     public static List<Integer> getVertexDegrees(double[][] adjacencyMatrix) {
-        List<Integer> vertexDegrees = new ArrayList<>();
-        int numVertices = adjacencyMatrix.length;
-        for (int vertex = 0; vertex < numVertices; vertex++) {
-            int degree = getVertexInDegree(adjacencyMatrix, vertex) + getVertexOutDegree(adjacencyMatrix, vertex);
+        return toList(DegreeProfile.of(adjacencyMatrix, true).getDegrees());
+    }
+
+    /**
+     * Returns the degrees of all vertices of a graph from its cached degree
+     * profile: the in-degree plus the out-degree in a directed graph, the
+     * number of neighbours in an undirected one.
+     *
+     * @param graph The graph.
+     * @return The list of vertex degrees.
+     */
+    public static List<Integer> getVertexDegrees(Graph graph) {
+        return toList(graph.getDegreeProfile().getDegrees());
+    }
+
+    /**
+     * Returns the in-degree of a vertex from the graph's cached degree
+     * profile.
+     *
+     * @param graph  The graph.
+     * @param vertex The index of the vertex.
+     * @return The in-degree of the vertex.
+     */
+    public static int getVertexInDegree(Graph graph, int vertex) {
+        return graph.getDegreeProfile().getInDegrees()[vertex];
+    }
+
+    /**
+     * Returns the out-degree of a vertex from the graph's cached degree
+     * profile.
+     *
+     * @param graph  The graph.
+     * @param vertex The index of the vertex.
+     * @return The out-degree of the vertex.
+     */
+    public static int getVertexOutDegree(Graph graph, int vertex) {
+        return graph.getDegreeProfile().getOutDegrees()[vertex];
+    }
+
+    private static List<Integer> toList(int[] degrees) {
+        List<Integer> vertexDegrees = new ArrayList<>(degrees.length);
+        for (int degree : degrees) {
             vertexDegrees.add(degree);
         }
         return vertexDegrees;
@@ -86,23 +129,92 @@ public class DegreeMeasures {
         return outDegree;
     }
 
+    /**
+     * Computes the triangle density of a graph: the number of triangles
+     * divided by the number of vertex triples, n (n - 1) (n - 2) / 6. The
+     * matrix is read as an undirected graph and the triangles are counted with
+     * {@link TriangleCounting} in O(m^1.5).
+     *
+     * @param adjMatrix The adjacency matrix representing the graph.
+     * @return The fraction of vertex triples that form a triangle.
+     */
     public static double calculateClusteringCoefficient(double[][] adjMatrix) {
         int numNodes = adjMatrix.length;
-        int[] triangles = new int[numNodes];
-        int numTriangles = 0;
-        for (int i = 0; i < numNodes; i++) {
-            for (int j = i + 1; j < numNodes; j++) {
-                for (int k = j + 1; k < numNodes; k++) {
-                    if (adjMatrix[i][j] != 0 && adjMatrix[i][k] != 0 && adjMatrix[j][k] != 0) {
-                        triangles[i]++;
-                        triangles[j]++;
-                        triangles[k]++;
-                        numTriangles++;
-                    }
-                }
-            }
+        if (numNodes < 3) {
+            return 0.0;
+        }
+        long numTriangles = TriangleCounting.count(adjMatrix).getTriangleCount();
+        return numTriangles / ((double) numNodes * (numNodes - 1) * (numNodes - 2) / 6);
+    }
+
+    /**
+     * Computes the number of triangles in a graph represented by an adjacency
+     * matrix, read as an undirected graph.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The triangle count.
+     */
+    public static long getTriangleCount(double[][] adjacencyMatrix) {
+        return TriangleCounting.count(adjacencyMatrix).getTriangleCount();
+    }
+
+    /**
+     * Computes the local clustering coefficient of every vertex: the fraction
+     * of pairs of neighbours that are themselves adjacent.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The list of local clustering coefficients.
+     */
+    public static List<Double> getLocalClusteringCoefficients(double[][] adjacencyMatrix) {
+        List<Double> coefficients = new ArrayList<>();
+        for (double coefficient : TriangleCounting.count(adjacencyMatrix).getLocalClustering()) {
+            coefficients.add(coefficient);
         }
-        return numTriangles / (numNodes * (numNodes - 1) * (double) (numNodes - 2) / 6);
+        return coefficients;
+    }
+
+    /**
+     * Computes the transitivity (global clustering coefficient) of a graph:
+     * three times the number of triangles divided by the number of wedges.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The transitivity.
+     */
+    public static double getTransitivity(double[][] adjacencyMatrix) {
+        return TriangleCounting.count(adjacencyMatrix).getTransitivity();
+    }
+
+    /**
+     * Estimates the triangle count and transitivity by wedge sampling, for
+     * graphs where exact counting is too slow. The matrix is read as an
+     * undirected graph.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @param samples         The number of wedges to check.
+     * @param confidence      The confidence level of the intervals, e.g. 0.95.
+     * @return The estimates with their confidence intervals.
+     * @see TriangleEstimation for DOULION and the streaming estimator.
+     */
+    public static TriangleEstimation.Result estimateTriangles(double[][] adjacencyMatrix, int samples,
+            double confidence) {
+        return TriangleEstimation.wedgeSampling(SparseGraph.undirectedFromMatrix(adjacencyMatrix), samples,
+                confidence, System.nanoTime());
+    }
+
+    /**
+     * Estimates the triangle count and transitivity with DOULION edge
+     * sparsification. The matrix is read as an undirected graph.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @param keepProbability The probability of keeping an edge.
+     * @param repetitions     The number of independent sparsifications.
+     * @param confidence      The confidence level of the intervals.
+     * @return The estimates with their confidence intervals.
+     */
+    public static TriangleEstimation.Result estimateTrianglesBySparsification(double[][] adjacencyMatrix,
+            double keepProbability, int repetitions, double confidence) {
+        return TriangleEstimation.doulion(SparseGraph.undirectedFromMatrix(adjacencyMatrix), keepProbability,
+                repetitions, confidence, System.nanoTime());
     }
 
     // Example usage
@@ -131,6 +243,11 @@ public class DegreeMeasures {
         double clusteringCoefficient = calculateClusteringCoefficient(adjacencyMatrix);
         System.out.println("Clustering Coefficient: " + clusteringCoefficient);
 
+        System.out.println("Local Clustering Coefficients: " + getLocalClusteringCoefficients(adjacencyMatrix));
+        System.out.println("Transitivity: " + getTransitivity(adjacencyMatrix));
+        TriangleEstimation.Result estimate = estimateTriangles(adjacencyMatrix, 1000, 0.95);
+        System.out.println("Estimated Transitivity: " + estimate.getTransitivity());
+
     }
 
 }
@@ -0,0 +1,557 @@
+package com.graphtools.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.traversal.BreadthFirstSearch;
+import com.graphtools.utils.MatrixValidator;
+
+/**
+ * Exact diameter, radius and eccentricities of unweighted graphs without
+ * all-pairs distances.
+ * <p>
+ * On undirected graphs every breadth-first search from a vertex v with
+ * eccentricity e(v) bounds every other vertex w by the triangle inequality:
+ * max(d(v, w), e(v) - d(v, w)) &lt;= e(w) &lt;= e(v) + d(v, w). The
+ * searches are spent where these bounds help most:
+ * <ul>
+ * <li>A 4-sweep (two chained double sweeps) finds a long path, hence a
+ * strong lower bound on the diameter, and a central vertex u on it.</li>
+ * <li>iFUB (Crescenzi et al.) then searches from the vertices of the
+ * breadth-first tree of u, deepest level first. Vertices at depth at most i
+ * are within 2i of each other, so once the diameter lower bound exceeds
+ * 2(i - 1) the remaining levels cannot improve it. Fringe vertices whose
+ * eccentricity upper bound already falls below the lower bound are
+ * skipped.</li>
+ * <li>The radius and, on request, every eccentricity are refined with the
+ * bound pruning of Takes and Kosters: only vertices whose bounds still
+ * leave them in question are searched. The radius searches the vertices
+ * with the smallest lower bound; refining every eccentricity alternates
+ * between the smallest lower and the largest upper bound.</li>
+ * </ul>
+ * On real-world graphs this takes a handful of searches instead of n. The
+ * searches of a round run in parallel on a fork/join pool.
+ * <p>
+ * Directed graphs lack the symmetric bounds and are solved with one search
+ * per vertex, still in O(n) memory per worker. A vertex that does not reach
+ * every other vertex has infinite eccentricity, so a graph that is not
+ * (strongly) connected has infinite diameter, reported as Integer.MAX_VALUE
+ * as in {@link DistanceMeasures}, and its radius is infinite too unless some
+ * vertex of a directed graph reaches all others. The optional per-vertex
+ * eccentricities are taken over the reachable vertices only, as in
+ * {@link DistanceMeasures#getVertexEccentricity}.
+ */
+public class Eccentricities {
+
+    private Eccentricities() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Diameter, radius, optional eccentricities and the search count.
+     */
+    public static class Result {
+        private final int diameter;
+        private final int radius;
+        private final boolean connected;
+        private final int[] eccentricities;
+        private final int searchCount;
+
+        private Result(int diameter, int radius, boolean connected, int[] eccentricities, int searchCount) {
+            this.diameter = diameter;
+            this.radius = radius;
+            this.connected = connected;
+            this.eccentricities = eccentricities;
+            this.searchCount = searchCount;
+        }
+
+        /**
+         * Returns the diameter, the largest eccentricity.
+         *
+         * @return The diameter, Integer.MAX_VALUE if the graph is not
+         *         connected.
+         */
+        public int getDiameter() {
+            return diameter;
+        }
+
+        /**
+         * Returns the radius, the smallest eccentricity.
+         *
+         * @return The radius, Integer.MAX_VALUE if no vertex reaches all
+         *         others.
+         */
+        public int getRadius() {
+            return radius;
+        }
+
+        /**
+         * Returns whether every vertex reaches every other vertex.
+         *
+         * @return True if the graph is (strongly) connected.
+         */
+        public boolean isConnected() {
+            return connected;
+        }
+
+        /**
+         * Returns the eccentricity of every vertex, if requested.
+         *
+         * @return The eccentricities, or null if they were not requested.
+         */
+        public int[] getEccentricities() {
+            return eccentricities;
+        }
+
+        /**
+         * Returns the number of breadth-first searches performed.
+         *
+         * @return The search count.
+         */
+        public int getSearchCount() {
+            return searchCount;
+        }
+    }
+
+    /**
+     * Computes the diameter and radius of a graph given as an adjacency
+     * matrix, where every non-zero entry is an arc of length one. A symmetric
+     * matrix is treated as an undirected graph.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @param eccentricities  Whether to compute every eccentricity as well.
+     * @return The diameter and radius.
+     */
+    public static Result compute(double[][] adjacencyMatrix, boolean eccentricities) {
+        boolean directed = adjacencyMatrix.length > 0 && !MatrixValidator.isSymmetric(adjacencyMatrix);
+        return compute(SparseGraph.fromMatrix(adjacencyMatrix), directed, eccentricities, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the diameter and radius of a sparse graph, ignoring arc
+     * weights.
+     *
+     * @param graph          The sparse graph. An undirected graph stores
+     *                       every edge as two arcs.
+     * @param directed       Whether the graph is directed.
+     * @param eccentricities Whether to compute every eccentricity as well.
+     * @param pool           The pool running the searches.
+     * @return The diameter and radius.
+     */
+    public static Result compute(SparseGraph graph, boolean directed, boolean eccentricities, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        if (n == 0) {
+            return new Result(0, 0, true, eccentricities ? new int[0] : null, 0);
+        }
+        return directed ? allSources(graph, eccentricities, pool) : new Bounds(graph, pool).solve(eccentricities);
+    }
+
+    /**
+     * Solves a directed graph with one search per vertex.
+     */
+    private static Result allSources(SparseGraph graph, boolean eccentricities, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] eccentricity = new int[n];
+        boolean[] complete = new boolean[n];
+        int workers = Math.max(1, Math.min(pool.getParallelism(), n));
+        AtomicInteger nextSource = new AtomicInteger();
+
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            int[] levels = new int[n];
+            int[] queue = new int[n];
+            int source;
+            while ((source = nextSource.getAndIncrement()) < n) {
+                int reached = BreadthFirstSearch.levels(graph, source, levels, queue);
+                eccentricity[source] = levels[queue[reached - 1]];
+                complete[source] = reached == n;
+            }
+        })).join();
+
+        // A vertex that misses some other vertex has infinite eccentricity
+        boolean connected = true;
+        int diameter = 0;
+        int radius = Integer.MAX_VALUE;
+        for (int v = 0; v < n; v++) {
+            connected &= complete[v];
+            diameter = Math.max(diameter, eccentricity[v]);
+            if (complete[v]) {
+                radius = Math.min(radius, eccentricity[v]);
+            }
+        }
+        if (!connected) {
+            diameter = Integer.MAX_VALUE;
+        }
+        return new Result(diameter, radius, connected, eccentricities ? eccentricity : null, n);
+    }
+
+    /**
+     * The eccentricity bounds of an undirected graph and the searches that
+     * refine them.
+     */
+    private static class Bounds {
+        private final SparseGraph graph;
+        private final ForkJoinPool pool;
+        private final int n;
+        private final int workers;
+        private final int[] lower;
+        private final int[] upper;
+        private final int[][] levels;
+        private final int[][] queues;
+        private final int[] reached;
+        private int searchCount;
+
+        Bounds(SparseGraph graph, ForkJoinPool pool) {
+            this.graph = graph;
+            this.pool = pool;
+            this.n = graph.getVertexCount();
+            this.workers = Math.max(1, Math.min(pool.getParallelism(), n));
+            this.lower = new int[n];
+            this.upper = new int[n];
+            Arrays.fill(upper, Integer.MAX_VALUE);
+            this.levels = new int[workers][n];
+            this.queues = new int[workers][n];
+            this.reached = new int[workers];
+        }
+
+        Result solve(boolean eccentricities) {
+            int start = 0;
+            for (int v = 1; v < n; v++) {
+                if (graph.getDegree(v) > graph.getDegree(start)) {
+                    start = v;
+                }
+            }
+            int first = search(start);
+            if (reached[0] < n) {
+                // Disconnected: bounds still hold inside each component
+                if (eccentricities) {
+                    refineAll();
+                }
+                return new Result(Integer.MAX_VALUE, Integer.MAX_VALUE, false, eccentricities ? lower : null,
+                        searchCount);
+            }
+
+            // 4-sweep: start -> a1 -> b1, middle r2 -> a2 -> b2, middle u
+            int a1 = queues[0][n - 1];
+            int lowerDiameter = Math.max(first, search(a1));
+            int r2 = middle(queues[0][n - 1]);
+            search(r2);
+            int a2 = queues[0][n - 1];
+            lowerDiameter = Math.max(lowerDiameter, search(a2));
+            int center = middle(queues[0][n - 1]);
+
+            if (eccentricities) {
+                refineAll();
+                int diameter = 0;
+                int radius = Integer.MAX_VALUE;
+                for (int v = 0; v < n; v++) {
+                    diameter = Math.max(diameter, lower[v]);
+                    radius = Math.min(radius, lower[v]);
+                }
+                return new Result(diameter, radius, true, lower, searchCount);
+            }
+
+            int diameter = iFub(center, lowerDiameter);
+            int radius = radius();
+            return new Result(diameter, radius, true, null, searchCount);
+        }
+
+        /**
+         * Runs iFUB from a central vertex and returns the diameter.
+         */
+        private int iFub(int center, int lowerDiameter) {
+            int eccentricity = search(center);
+            int[] order = queues[0].clone();
+            int[] depth = levels[0].clone();
+            int best = Math.max(lowerDiameter, eccentricity);
+
+            int end = n;
+            for (int i = eccentricity; 2 * i > best; i--) {
+                int begin = end;
+                while (begin > 0 && depth[order[begin - 1]] == i) {
+                    begin--;
+                }
+                int[] fringe = new int[end - begin];
+                int count = 0;
+                for (int k = begin; k < end; k++) {
+                    fringe[count++] = order[k];
+                }
+
+                // Search the fringe vertex with the largest upper bound, and
+                // alternately the most central vertex, whose search tightens
+                // the upper bounds of the whole fringe
+                int[] batch = new int[workers];
+                boolean pickCentral = false;
+                while (true) {
+                    int kept = 0;
+                    for (int k = 0; k < count; k++) {
+                        int v = fringe[k];
+                        if (lower[v] == upper[v]) {
+                            best = Math.max(best, lower[v]);
+                        } else if (upper[v] > best) {
+                            fringe[kept++] = v;
+                        }
+                    }
+                    count = kept;
+                    if (count == 0) {
+                        break;
+                    }
+                    int size = 0;
+                    while (size < workers && size < count) {
+                        int v = pickCentral ? mostCentral(batch, size) : largestUpper(fringe, count, batch, size);
+                        pickCentral = !pickCentral;
+                        if (v >= 0) {
+                            batch[size++] = v;
+                        } else if (!pickCentral) {
+                            break;
+                        }
+                    }
+                    for (int e : searchAll(Arrays.copyOf(batch, size))) {
+                        best = Math.max(best, e);
+                    }
+                }
+                // Pairs within the levels above are at most 2 (i - 1) apart
+                end = begin;
+            }
+            return best;
+        }
+
+        /**
+         * Refines the lower bounds of the radius candidates and returns the
+         * radius.
+         */
+        private int radius() {
+            int radius = Integer.MAX_VALUE;
+            for (int v = 0; v < n; v++) {
+                if (lower[v] == upper[v]) {
+                    radius = Math.min(radius, lower[v]);
+                }
+                radius = Math.min(radius, upper[v]);
+            }
+            int[] batch = new int[workers];
+            while (true) {
+                // The candidates with the smallest lower bounds
+                int count = smallestLower(batch, radius);
+                if (count == 0) {
+                    return radius;
+                }
+                for (int e : searchAll(Arrays.copyOf(batch, count))) {
+                    radius = Math.min(radius, e);
+                }
+                for (int v = 0; v < n; v++) {
+                    radius = Math.min(radius, upper[v]);
+                }
+            }
+        }
+
+        /**
+         * Refines every vertex until its bounds meet, alternating between the
+         * smallest lower and the largest upper bound (ties broken by
+         * degree).
+         */
+        private void refineAll() {
+            int[] batch = new int[workers];
+            boolean pickLower = true;
+            while (true) {
+                int count = 0;
+                for (int slot = 0; slot < workers; slot++) {
+                    int best = -1;
+                    for (int v = 0; v < n; v++) {
+                        if (lower[v] == upper[v] || contains(batch, count, v)) {
+                            continue;
+                        }
+                        if (best < 0 || (pickLower ? lower[v] < lower[best] : upper[v] > upper[best])
+                                || ((pickLower ? lower[v] == lower[best] : upper[v] == upper[best])
+                                        && graph.getDegree(v) > graph.getDegree(best))) {
+                            best = v;
+                        }
+                    }
+                    if (best < 0) {
+                        break;
+                    }
+                    batch[count++] = best;
+                    pickLower = !pickLower;
+                }
+                if (count == 0) {
+                    return;
+                }
+                searchAll(Arrays.copyOf(batch, count));
+            }
+        }
+
+        /**
+         * Returns the unresolved vertex of smallest lower bound not already
+         * in the batch, ties broken by degree, or -1 if there is none.
+         */
+        private int mostCentral(int[] batch, int size) {
+            int best = -1;
+            for (int v = 0; v < n; v++) {
+                if (lower[v] < upper[v] && !contains(batch, size, v) && (best < 0 || lower[v] < lower[best]
+                        || (lower[v] == lower[best] && graph.getDegree(v) > graph.getDegree(best)))) {
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Returns the candidate of largest upper bound not already in the
+         * batch, or -1 if there is none.
+         */
+        private int largestUpper(int[] candidates, int count, int[] batch, int size) {
+            int best = -1;
+            for (int k = 0; k < count; k++) {
+                int v = candidates[k];
+                if (!contains(batch, size, v) && (best < 0 || upper[v] > upper[best])) {
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Fills the batch with the unresolved vertices of smallest lower
+         * bound below a limit and returns how many were found.
+         */
+        private int smallestLower(int[] batch, int limit) {
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                if (lower[v] >= limit || lower[v] == upper[v]) {
+                    continue;
+                }
+                if (count < batch.length) {
+                    batch[count++] = v;
+                } else {
+                    int worst = 0;
+                    for (int k = 1; k < count; k++) {
+                        if (lower[batch[k]] > lower[batch[worst]]) {
+                            worst = k;
+                        }
+                    }
+                    if (lower[v] < lower[batch[worst]]) {
+                        batch[worst] = v;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Walks from the far end of the last search from worker 0 halfway
+         * back towards its source and returns the vertex reached.
+         */
+        private int middle(int far) {
+            int[] level = levels[0];
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int v = far;
+            for (int steps = level[far] / 2; steps > 0; steps--) {
+                for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                    if (level[targets[a]] == level[v] - 1) {
+                        v = targets[a];
+                        break;
+                    }
+                }
+            }
+            return v;
+        }
+
+        /**
+         * Searches from one vertex on worker 0's buffers, updates the bounds
+         * and returns the eccentricity.
+         */
+        private int search(int source) {
+            return searchAll(new int[] { source })[0];
+        }
+
+        /**
+         * Searches from up to one vertex per worker in parallel, then updates
+         * the bounds of every vertex from each search.
+         */
+        private int[] searchAll(int[] sources) {
+            int[] eccentricity = new int[sources.length];
+            pool.submit(() -> IntStream.range(0, sources.length).parallel().forEach(k -> {
+                reached[k] = BreadthFirstSearch.levels(graph, sources[k], levels[k], queues[k]);
+                eccentricity[k] = levels[k][queues[k][reached[k] - 1]];
+            })).join();
+            searchCount += sources.length;
+
+            for (int k = 0; k < sources.length; k++) {
+                int e = eccentricity[k];
+                int[] level = levels[k];
+                int[] queue = queues[k];
+                for (int i = 0; i < reached[k]; i++) {
+                    int w = queue[i];
+                    int d = level[w];
+                    lower[w] = Math.max(lower[w], Math.max(d, e - d));
+                    upper[w] = Math.min(upper[w], e + d);
+                }
+                lower[sources[k]] = e;
+                upper[sources[k]] = e;
+            }
+            return eccentricity;
+        }
+    }
+
+    /**
+     * Example usage of the Eccentricities class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        double[][] adjacencyMatrix = {
+                { 0.0, 1.0, 1.0, 0.0, 0.0 },
+                { 1.0, 0.0, 1.0, 0.0, 0.0 },
+                { 1.0, 1.0, 0.0, 1.0, 0.0 },
+                { 0.0, 0.0, 1.0, 0.0, 1.0 },
+                { 0.0, 0.0, 0.0, 1.0, 0.0 }
+        };
+
+        Result result = compute(adjacencyMatrix, true);
+        System.out.println("Diameter: " + result.getDiameter());
+        System.out.println("Radius: " + result.getRadius());
+        System.out.println("Eccentricities: " + Arrays.toString(result.getEccentricities()));
+
+        // Connected random graph with 200,000 vertices and 300,000 edges: a
+        // random recursive tree plus random chords
+        int n = 200000;
+        Random random = new Random(17);
+        int[] degree = new int[n];
+        int[][] pairs = new int[300000][];
+        for (int e = 0; e < pairs.length; e++) {
+            int u = e < n - 1 ? e + 1 : random.nextInt(n);
+            int v = e < n - 1 ? random.nextInt(u) : (u + 1 + random.nextInt(n - 1)) % n;
+            pairs[e] = new int[] { u, v };
+            degree[u]++;
+            degree[v]++;
+        }
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int[] pair : pairs) {
+            targets[fill[pair[0]]++] = pair[1];
+            targets[fill[pair[1]]++] = pair[0];
+        }
+        SparseGraph graph = new SparseGraph(n, offsets, targets, new double[targets.length]);
+
+        long start = System.nanoTime();
+        Result large = compute(graph, false, false, ForkJoinPool.commonPool());
+        System.out.printf("Connected: %b, diameter %d, radius %d from %d searches (%.1f ms)%n", large.isConnected(),
+                large.getDiameter(), large.getRadius(), large.getSearchCount(), (System.nanoTime() - start) / 1e6);
+    }
+}
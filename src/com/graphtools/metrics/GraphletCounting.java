@@ -0,0 +1,534 @@
+package com.graphtools.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * Per-vertex orbit counts of the connected graphlets on two to four vertices,
+ * in the combinatorial style of ORCA (Hocevar and Demsar). The 9 graphlets
+ * have 15 orbits, numbered as in the graphlet degree vector literature:
+ * <ul>
+ * <li>G0 edge: orbit 0</li>
+ * <li>G1 path on 3 vertices: end 1, middle 2</li>
+ * <li>G2 triangle: 3</li>
+ * <li>G3 path on 4 vertices: end 4, inner 5</li>
+ * <li>G4 star with 3 leaves: leaf 6, centre 7</li>
+ * <li>G5 4-cycle: 8</li>
+ * <li>G6 paw (triangle with a pendant edge): pendant 9, triangle vertices of
+ * degree 2 10, vertex of degree 3 11</li>
+ * <li>G7 diamond (4-clique without one edge): degree 2 12, degree 3 13</li>
+ * <li>G8 4-clique: 14</li>
+ * </ul>
+ * Only triangles and 4-cliques are enumerated, over the graph oriented from
+ * lower to higher degree rank as in {@link TriangleCounting}. Every other
+ * orbit is first counted as a non-induced subgraph from degrees, per-edge
+ * triangle counts and, for the 4-cycle, common neighbour counts; the induced
+ * counts then follow from a triangular linear system relating the two. The
+ * cost is O(m^1.5) for the enumeration plus the sum of the squared degrees
+ * for the 4-cycles, with all passes parallel over blocks of vertices.
+ * <p>
+ * The sampling mode keeps every edge with probability p (as DOULION does for
+ * triangles), counts the non-induced subgraphs of the sparse sample, divides
+ * each by p raised to its number of edges, and solves the same system, which
+ * gives unbiased estimates of every induced orbit count.
+ */
+public class GraphletCounting {
+
+    /**
+     * The number of orbits of the graphlets on two to four vertices.
+     */
+    public static final int ORBIT_COUNT = 15;
+
+    /**
+     * The number of graphlets on two to four vertices.
+     */
+    public static final int GRAPHLET_COUNT = 9;
+
+    /**
+     * Number of vertices a parallel worker claims at a time.
+     */
+    private static final int VERTEX_BLOCK = 64;
+
+    /**
+     * The number of edges of the graphlet each orbit belongs to.
+     */
+    private static final int[] ORBIT_EDGES = { 1, 2, 2, 3, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 6 };
+
+    private GraphletCounting() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Exact orbit counts.
+     */
+    public static class Result {
+        private final long[][] orbits;
+
+        private Result(long[][] orbits) {
+            this.orbits = orbits;
+        }
+
+        /**
+         * Returns the orbit counts: entry [v][k] is the number of induced
+         * graphlets in which vertex v occupies orbit k.
+         *
+         * @return The n x {@link #ORBIT_COUNT} orbit count matrix.
+         */
+        public long[][] getOrbitCounts() {
+            return orbits;
+        }
+
+        /**
+         * Returns the number of induced copies of each graphlet, G0 to G8.
+         *
+         * @return The graphlet counts.
+         */
+        public long[] getGraphletCounts() {
+            long[] sums = new long[ORBIT_COUNT];
+            for (long[] row : orbits) {
+                for (int k = 0; k < ORBIT_COUNT; k++) {
+                    sums[k] += row[k];
+                }
+            }
+            return new long[] { sums[0] / 2, sums[2], sums[3] / 3, sums[4] / 2, sums[7], sums[8] / 4, sums[11],
+                    sums[13] / 2, sums[14] / 4 };
+        }
+    }
+
+    /**
+     * Orbit count estimates from an edge sample.
+     */
+    public static class Estimate {
+        private final double[][] orbits;
+        private final double keepProbability;
+
+        private Estimate(double[][] orbits, double keepProbability) {
+            this.orbits = orbits;
+            this.keepProbability = keepProbability;
+        }
+
+        /**
+         * Returns the estimated orbit counts, laid out as
+         * {@link Result#getOrbitCounts()}. Single estimates may be negative.
+         *
+         * @return The n x {@link #ORBIT_COUNT} estimate matrix.
+         */
+        public double[][] getOrbitCounts() {
+            return orbits;
+        }
+
+        /**
+         * Returns the estimated number of induced copies of each graphlet.
+         *
+         * @return The graphlet count estimates, G0 to G8.
+         */
+        public double[] getGraphletCounts() {
+            double[] sums = new double[ORBIT_COUNT];
+            for (double[] row : orbits) {
+                for (int k = 0; k < ORBIT_COUNT; k++) {
+                    sums[k] += row[k];
+                }
+            }
+            return new double[] { sums[0] / 2, sums[2], sums[3] / 3, sums[4] / 2, sums[7], sums[8] / 4, sums[11],
+                    sums[13] / 2, sums[14] / 4 };
+        }
+
+        public double getKeepProbability() {
+            return keepProbability;
+        }
+    }
+
+    /**
+     * Counts the orbits of a graph given as an adjacency matrix. The matrix is
+     * read as an undirected graph: i and j are adjacent if either entry is
+     * non-zero, and self loops are ignored.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The orbit counts.
+     */
+    public static Result count(double[][] adjacencyMatrix) {
+        return count(SparseGraph.undirectedFromMatrix(adjacencyMatrix), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Counts the orbits of an undirected sparse graph on the given pool.
+     *
+     * @param graph An undirected graph without self loops, every edge stored
+     *              as two arcs (see {@link SparseGraph#undirectedFromMatrix}).
+     * @param pool  The pool running the workers.
+     * @return The orbit counts.
+     */
+    public static Result count(SparseGraph graph, ForkJoinPool pool) {
+        long[][] orbits = nonInduced(graph, pool);
+        for (long[] row : orbits) {
+            induce(row);
+        }
+        return new Result(orbits);
+    }
+
+    /**
+     * Estimates the orbit counts from one edge sample, for graphs too large
+     * to count exactly. The expected work falls roughly with p^2 for the
+     * 4-cycles and p^3 for the enumeration; the variance grows as p shrinks,
+     * most of all for the orbits of the denser graphlets.
+     *
+     * @param graph           An undirected graph without self loops, every
+     *                        edge stored as two arcs.
+     * @param keepProbability The probability p of keeping an edge.
+     * @param seed            The seed of the random generator.
+     * @param pool            The pool running the workers.
+     * @return The estimates.
+     */
+    public static Estimate estimate(SparseGraph graph, double keepProbability, long seed, ForkJoinPool pool) {
+        if (keepProbability <= 0 || keepProbability > 1) {
+            throw new IllegalArgumentException("The keep probability must lie in (0, 1].");
+        }
+        SparseGraph sample = TriangleEstimation.sparsify(graph, keepProbability, new SplittableRandom(seed));
+        long[][] counts = nonInduced(sample, pool);
+
+        double[] scale = new double[ORBIT_COUNT];
+        for (int k = 0; k < ORBIT_COUNT; k++) {
+            scale[k] = Math.pow(keepProbability, -ORBIT_EDGES[k]);
+        }
+        double[][] orbits = new double[counts.length][ORBIT_COUNT];
+        for (int v = 0; v < counts.length; v++) {
+            for (int k = 0; k < ORBIT_COUNT; k++) {
+                orbits[v][k] = counts[v][k] * scale[k];
+            }
+            induce(orbits[v]);
+        }
+        return new Estimate(orbits, keepProbability);
+    }
+
+    /**
+     * Counts, for every vertex and orbit, the subgraphs (not necessarily
+     * induced) isomorphic to the orbit's graphlet with the vertex in that
+     * orbit. Orbits 0 to 3 are already induced.
+     */
+    private static long[][] nonInduced(SparseGraph graph, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] reverse = BiconnectedComponents.reverseArcs(graph);
+
+        // Orient every edge towards the higher degree rank, keeping each
+        // out-list as the arc indices of the row, still sorted by target
+        int[] order = TriangleCounting.degreeOrder(graph);
+        int[] rank = new int[n];
+        for (int r = 0; r < n; r++) {
+            rank[order[r]] = r;
+        }
+        int[] outOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int count = 0;
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                count += rank[targets[a]] > rank[u] ? 1 : 0;
+            }
+            outOffsets[u + 1] = outOffsets[u] + count;
+        }
+        int[] outArcs = new int[outOffsets[n]];
+        for (int u = 0; u < n; u++) {
+            int position = outOffsets[u];
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                if (rank[targets[a]] > rank[u]) {
+                    outArcs[position++] = a;
+                }
+            }
+        }
+
+        int workers = Math.max(1, Math.min(pool.getParallelism(), n));
+
+        // Triangles per edge; triangle (u, v, w) with ranks u < v < w is found
+        // once, at u
+        AtomicIntegerArray shared = new AtomicIntegerArray(targets.length);
+        AtomicInteger nextVertex = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            int from;
+            while ((from = nextVertex.getAndAdd(VERTEX_BLOCK)) < n) {
+                int to = Math.min(n, from + VERTEX_BLOCK);
+                for (int u = from; u < to; u++) {
+                    for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++) {
+                        int v = targets[outArcs[i]];
+                        int p = outOffsets[u];
+                        int q = outOffsets[v];
+                        while (p < outOffsets[u + 1] && q < outOffsets[v + 1]) {
+                            int x = targets[outArcs[p]];
+                            int y = targets[outArcs[q]];
+                            if (x < y) {
+                                p++;
+                            } else if (x > y) {
+                                q++;
+                            } else {
+                                shared.incrementAndGet(outArcs[i]);
+                                shared.incrementAndGet(outArcs[p]);
+                                shared.incrementAndGet(outArcs[q]);
+                                p++;
+                                q++;
+                            }
+                        }
+                    }
+                }
+            }
+        })).join();
+        int[] edgeTriangles = new int[targets.length];
+        for (int a : outArcs) {
+            edgeTriangles[a] = shared.get(a);
+            edgeTriangles[reverse[a]] = edgeTriangles[a];
+        }
+
+        long[] triangles = new long[n];
+        long[] pathSums = new long[n];
+        for (int v = 0; v < n; v++) {
+            long sum = 0;
+            long paths = 0;
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                sum += edgeTriangles[a];
+                paths += offsets[targets[a] + 1] - offsets[targets[a]] - 1;
+            }
+            triangles[v] = sum / 2;
+            pathSums[v] = paths;
+        }
+
+        // Second enumeration: diamonds seen from their degree 2 vertices, and
+        // 4-cliques (u, v, w, z) by rank, found once at u
+        long[][] diamondPartials = new long[workers][];
+        long[][] cliquePartials = new long[workers][];
+        nextVertex.set(0);
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            long[] diamonds = new long[n];
+            long[] cliques = new long[n];
+            int[] common = new int[16];
+            int from;
+            while ((from = nextVertex.getAndAdd(VERTEX_BLOCK)) < n) {
+                int to = Math.min(n, from + VERTEX_BLOCK);
+                for (int u = from; u < to; u++) {
+                    for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++) {
+                        int uv = outArcs[i];
+                        int v = targets[uv];
+                        int p = outOffsets[u];
+                        int q = outOffsets[v];
+                        int size = 0;
+                        while (p < outOffsets[u + 1] && q < outOffsets[v + 1]) {
+                            int x = targets[outArcs[p]];
+                            int y = targets[outArcs[q]];
+                            if (x < y) {
+                                p++;
+                            } else if (x > y) {
+                                q++;
+                            } else {
+                                int uw = outArcs[p];
+                                int vw = outArcs[q];
+                                diamonds[u] += edgeTriangles[vw] - 1;
+                                diamonds[v] += edgeTriangles[uw] - 1;
+                                diamonds[x] += edgeTriangles[uv] - 1;
+                                if (size == common.length) {
+                                    common = Arrays.copyOf(common, 2 * size);
+                                }
+                                common[size++] = x;
+                                p++;
+                                q++;
+                            }
+                        }
+                        for (int c = 0; c < size; c++) {
+                            int w = common[c];
+                            int r = 0;
+                            int s = outOffsets[w];
+                            while (r < size && s < outOffsets[w + 1]) {
+                                int x = common[r];
+                                int y = targets[outArcs[s]];
+                                if (x < y) {
+                                    r++;
+                                } else if (x > y) {
+                                    s++;
+                                } else {
+                                    cliques[u]++;
+                                    cliques[v]++;
+                                    cliques[w]++;
+                                    cliques[x]++;
+                                    r++;
+                                    s++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            diamondPartials[worker] = diamonds;
+            cliquePartials[worker] = cliques;
+        })).join();
+
+        // Everything else is local to a vertex and its neighbours
+        long[][] counts = new long[n][ORBIT_COUNT];
+        nextVertex.set(0);
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            int[] common = new int[n];
+            int[] touched = new int[n];
+            int from;
+            while ((from = nextVertex.getAndAdd(VERTEX_BLOCK)) < n) {
+                int to = Math.min(n, from + VERTEX_BLOCK);
+                for (int x = from; x < to; x++) {
+                    long d = offsets[x + 1] - offsets[x];
+                    long t = triangles[x];
+                    long[] row = counts[x];
+                    row[0] = d;
+                    row[2] = d * (d - 1) / 2;
+                    row[3] = t;
+                    row[7] = d * (d - 1) * (d - 2) / 6;
+                    row[11] = t * (d - 2);
+                    int touchedCount = 0;
+                    for (int a = offsets[x]; a < offsets[x + 1]; a++) {
+                        int y = targets[a];
+                        long dy = offsets[y + 1] - offsets[y];
+                        long e = edgeTriangles[a];
+                        row[1] += dy - 1;
+                        row[4] += pathSums[y] - d + 1;
+                        row[5] += (d - 1) * (dy - 1) - e;
+                        row[6] += (dy - 1) * (dy - 2) / 2;
+                        row[9] += triangles[y] - e;
+                        row[10] += e * (dy - 2);
+                        row[13] += e * (e - 1) / 2;
+                        for (int b = offsets[y]; b < offsets[y + 1]; b++) {
+                            int z = targets[b];
+                            if (z != x && common[z]++ == 0) {
+                                touched[touchedCount++] = z;
+                            }
+                        }
+                    }
+                    row[4] -= 2 * t;
+                    for (int i = 0; i < touchedCount; i++) {
+                        long c = common[touched[i]];
+                        row[8] += c * (c - 1) / 2;
+                        common[touched[i]] = 0;
+                    }
+                    for (int w = 0; w < workers; w++) {
+                        row[12] += diamondPartials[w][x];
+                        row[14] += cliquePartials[w][x];
+                    }
+                }
+            }
+        })).join();
+
+        return counts;
+    }
+
+    /**
+     * Turns the non-induced counts of one vertex into induced counts. A
+     * graphlet with more edges contains copies of the sparser ones, e.g. a
+     * 4-clique contains 12 paths on 4 vertices, each vertex being an end of
+     * 6; subtracting these from the densest orbit down leaves the induced
+     * counts.
+     */
+    private static void induce(long[] o) {
+        o[1] -= 2 * o[3];
+        o[2] -= o[3];
+        o[13] -= 3 * o[14];
+        o[12] -= 3 * o[14];
+        o[11] -= 2 * o[13] + 3 * o[14];
+        o[10] -= 2 * o[12] + 2 * o[13] + 6 * o[14];
+        o[9] -= 2 * o[12] + 3 * o[14];
+        o[8] -= o[12] + o[13] + 3 * o[14];
+        o[7] -= o[11] + o[13] + o[14];
+        o[6] -= o[9] + o[10] + 2 * o[12] + o[13] + 3 * o[14];
+        o[5] -= 2 * o[8] + o[10] + 2 * o[11] + 2 * o[12] + 4 * o[13] + 6 * o[14];
+        o[4] -= 2 * o[8] + 2 * o[9] + o[10] + 4 * o[12] + 2 * o[13] + 6 * o[14];
+    }
+
+    /**
+     * The same system as {@link #induce(long[])} for estimated counts.
+     */
+    private static void induce(double[] o) {
+        o[1] -= 2 * o[3];
+        o[2] -= o[3];
+        o[13] -= 3 * o[14];
+        o[12] -= 3 * o[14];
+        o[11] -= 2 * o[13] + 3 * o[14];
+        o[10] -= 2 * o[12] + 2 * o[13] + 6 * o[14];
+        o[9] -= 2 * o[12] + 3 * o[14];
+        o[8] -= o[12] + o[13] + 3 * o[14];
+        o[7] -= o[11] + o[13] + o[14];
+        o[6] -= o[9] + o[10] + 2 * o[12] + o[13] + 3 * o[14];
+        o[5] -= 2 * o[8] + o[10] + 2 * o[11] + 2 * o[12] + 4 * o[13] + 6 * o[14];
+        o[4] -= 2 * o[8] + 2 * o[9] + o[10] + 4 * o[12] + 2 * o[13] + 6 * o[14];
+    }
+
+    /**
+     * Example usage of the GraphletCounting class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        // A diamond 0-1-2-3 with a pendant vertex 4 on vertex 3
+        double[][] adjacencyMatrix = {
+                { 0, 1, 1, 0, 0 },
+                { 1, 0, 1, 1, 0 },
+                { 1, 1, 0, 1, 0 },
+                { 0, 1, 1, 0, 1 },
+                { 0, 0, 0, 1, 0 }
+        };
+
+        Result result = count(adjacencyMatrix);
+        long[][] orbits = result.getOrbitCounts();
+        for (int v = 0; v < orbits.length; v++) {
+            System.out.println("Vertex " + v + ": " + Arrays.toString(orbits[v]));
+        }
+        System.out.println("Graphlets: " + Arrays.toString(result.getGraphletCounts()));
+
+        // Random graph with 20,000 vertices and about 200,000 edges
+        int n = 20000;
+        Random random = new Random(13);
+        int[][] pairs = new int[200000][];
+        for (int e = 0; e < pairs.length; e++) {
+            int u = random.nextInt(n);
+            pairs[e] = new int[] { u, (u + 1 + random.nextInt(n - 1)) % n };
+        }
+        int[] degree = new int[n];
+        for (int[] pair : pairs) {
+            degree[pair[0]]++;
+            degree[pair[1]]++;
+        }
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int[] pair : pairs) {
+            targets[fill[pair[0]]++] = pair[1];
+            targets[fill[pair[1]]++] = pair[0];
+        }
+        int[] compact = new int[n + 1];
+        int kept = 0;
+        for (int v = 0; v < n; v++) {
+            Arrays.sort(targets, offsets[v], offsets[v + 1]);
+            int rowStart = kept;
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                if (kept == rowStart || targets[kept - 1] != targets[a]) {
+                    targets[kept++] = targets[a];
+                }
+            }
+            compact[v + 1] = kept;
+        }
+        targets = Arrays.copyOf(targets, kept);
+        double[] weights = new double[kept];
+        Arrays.fill(weights, 1.0);
+        SparseGraph graph = new SparseGraph(n, compact, targets, weights);
+
+        long start = System.nanoTime();
+        long[] exact = count(graph, ForkJoinPool.commonPool()).getGraphletCounts();
+        System.out.printf("Exact:    %s (%.1f ms)%n", Arrays.toString(exact), (System.nanoTime() - start) / 1e6);
+        start = System.nanoTime();
+        double[] estimated = estimate(graph, 0.5, 7, ForkJoinPool.commonPool()).getGraphletCounts();
+        long[] rounded = new long[estimated.length];
+        for (int g = 0; g < estimated.length; g++) {
+            rounded[g] = Math.round(estimated[g]);
+        }
+        System.out.printf("Estimate: %s (%.1f ms)%n", Arrays.toString(rounded), (System.nanoTime() - start) / 1e6);
+    }
+}
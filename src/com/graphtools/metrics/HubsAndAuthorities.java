@@ -0,0 +1,141 @@
+package com.graphtools.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.metrics.PowerIteration.Acceleration;
+
+/**
+ * Kleinberg's HITS hub and authority scores. A good hub points at good
+ * authorities and a good authority is pointed at by good hubs, so the
+ * authority vector is the dominant eigenvector of A^T A and the hub vector is
+ * A times it. The {@link PowerIteration} kernel iterates on A^T A as the
+ * composition of two sparse products, without forming the matrix; being
+ * symmetric and positive semi-definite, it is a natural fit for Chebyshev
+ * acceleration.
+ */
+public class HubsAndAuthorities {
+
+    private HubsAndAuthorities() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Hub and authority scores and the power iteration diagnostics.
+     */
+    public static class Result {
+        private final double[] hubs;
+        private final double[] authorities;
+        private final PowerIteration.Result diagnostics;
+
+        private Result(double[] hubs, double[] authorities, PowerIteration.Result diagnostics) {
+            this.hubs = hubs;
+            this.authorities = authorities;
+            this.diagnostics = diagnostics;
+        }
+
+        /**
+         * Returns the hub score of every vertex, summing to 1.
+         *
+         * @return The hub scores.
+         */
+        public double[] getHubs() {
+            return hubs;
+        }
+
+        /**
+         * Returns the authority score of every vertex, summing to 1.
+         *
+         * @return The authority scores.
+         */
+        public double[] getAuthorities() {
+            return authorities;
+        }
+
+        /**
+         * Returns the convergence diagnostics of the authority iteration.
+         *
+         * @return The power iteration result.
+         */
+        public PowerIteration.Result getDiagnostics() {
+            return diagnostics;
+        }
+    }
+
+    /**
+     * Computes the HITS scores of a graph given as an adjacency matrix, where
+     * entry [i][j] is the weight of the link from i to j.
+     *
+     * @param adjacencyMatrix The adjacency matrix, with non-negative weights.
+     * @return The hub and authority scores.
+     */
+    public static Result compute(double[][] adjacencyMatrix) {
+        return compute(SparseGraph.fromMatrix(adjacencyMatrix), PowerIteration.DEFAULT_TOLERANCE,
+                PowerIteration.DEFAULT_MAX_ITERATIONS, Acceleration.CHEBYSHEV, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the HITS scores of a sparse graph.
+     *
+     * @param graph         The sparse graph, with non-negative weights.
+     * @param tolerance     The relative residual at which to stop.
+     * @param maxIterations The iteration limit, each iteration two sparse
+     *                      products.
+     * @param acceleration  The acceleration.
+     * @param pool          The pool running the matrix-vector products.
+     * @return The hub and authority scores.
+     */
+    public static Result compute(SparseGraph graph, double tolerance, int maxIterations,
+            Acceleration acceleration, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        PowerIteration.LinearOperator forward = PowerIteration.adjacency(graph, pool);
+        PowerIteration.LinearOperator backward = PowerIteration.adjacency(graph.transpose(), pool);
+        PowerIteration.Result diagnostics = PowerIteration.dominant(
+                PowerIteration.compose(forward, backward, n), n, 0.0, tolerance, maxIterations, acceleration, pool);
+
+        double[] authorities = diagnostics.getVector().clone();
+        double[] hubs = new double[n];
+        forward.apply(authorities, hubs);
+        normalise(authorities);
+        normalise(hubs);
+        return new Result(hubs, authorities, diagnostics);
+    }
+
+    /**
+     * Scales a non-negative vector to sum 1, leaving a zero vector unchanged.
+     */
+    private static void normalise(double[] scores) {
+        double sum = 0.0;
+        for (double score : scores) {
+            sum += score;
+        }
+        if (sum > 0) {
+            for (int v = 0; v < scores.length; v++) {
+                scores[v] /= sum;
+            }
+        }
+    }
+
+    /**
+     * Example usage of the HubsAndAuthorities class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        // Pages 0 and 1 link to the same three pages; page 4 links to one
+        double[][] adjacencyMatrix = {
+                { 0, 0, 1, 1, 1 },
+                { 0, 0, 1, 1, 1 },
+                { 0, 0, 0, 0, 0 },
+                { 0, 0, 0, 0, 0 },
+                { 0, 0, 1, 0, 0 }
+        };
+
+        Result result = compute(adjacencyMatrix);
+        System.out.println("Hubs: " + Arrays.toString(result.getHubs()));
+        System.out.println("Authorities: " + Arrays.toString(result.getAuthorities()));
+        System.out.println("Iterations: " + result.getDiagnostics().getIterations() + ", residual "
+                + result.getDiagnostics().getResidual());
+    }
+}
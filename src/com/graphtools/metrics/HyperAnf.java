@@ -0,0 +1,635 @@
+package com.graphtools.metrics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * HyperANF (Boldi, Rosa and Vigna): the neighbourhood function N(t), the
+ * number of pairs (v, w) with d(v, w) &lt;= t, approximated with one
+ * HyperLogLog counter per vertex. The counter of v starts as {v}; in round
+ * t + 1 it becomes the union of its own counter and those of its
+ * out-neighbours, so after round t it estimates the size of the ball of
+ * radius t around v, and N(t) is the sum of the estimates. The iteration
+ * stops when no counter changes, after diameter + 1 rounds, each costing
+ * O(m) counter unions. From N(t) follow the cumulative distance
+ * distribution, the average distance and the effective diameter.
+ * <p>
+ * Counters use m = 2^b registers of five bits, packed twelve to a long. A
+ * union is a register-wise maximum, computed for all twelve registers of a
+ * word at once with broadword arithmetic. Two copies of the registers are
+ * kept (the current round and the next); they live on the heap or, for
+ * graphs whose registers exceed the Java array limit, off-heap in direct
+ * buffers. Vertices are processed in parallel blocks, and a vertex only
+ * merges the neighbours whose counters changed in the previous round, since
+ * the others have nothing new to offer.
+ * <p>
+ * Each N(t) has a relative standard deviation of at most 1.04 / sqrt(m). The
+ * computation can be repeated with independent hash functions; the results
+ * are averaged and their spread gives empirical standard errors for every
+ * derived quantity.
+ */
+public class HyperAnf {
+
+    /**
+     * Default number of registers per counter, as a power of two.
+     */
+    public static final int DEFAULT_LOG2_REGISTERS = 7;
+
+    /**
+     * Default number of independent runs.
+     */
+    public static final int DEFAULT_RUNS = 4;
+
+    /**
+     * Bits per register.
+     */
+    private static final int REGISTER_BITS = 5;
+
+    /**
+     * Registers packed into one long.
+     */
+    private static final int REGISTERS_PER_WORD = 12;
+
+    /**
+     * The highest bit of every register lane.
+     */
+    private static final long HIGH_BITS = lanes(1L << (REGISTER_BITS - 1));
+
+    /**
+     * Largest register value.
+     */
+    private static final int MAX_REGISTER = (1 << REGISTER_BITS) - 1;
+
+    /**
+     * Number of vertices a parallel task processes.
+     */
+    private static final int VERTEX_BLOCK = 1024;
+
+    /**
+     * The quantile defining the effective diameter.
+     */
+    private static final double EFFECTIVE_QUANTILE = 0.9;
+
+    private HyperAnf() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * The approximate neighbourhood function and the statistics derived from
+     * it, with standard errors.
+     */
+    public static class Result {
+        private final double[] neighbourhood;
+        private final double[] neighbourhoodError;
+        private final double[] distribution;
+        private final double[] distributionError;
+        private final double averageDistance;
+        private final double averageDistanceError;
+        private final double effectiveDiameter;
+        private final double effectiveDiameterError;
+        private final double relativeStandardDeviation;
+        private final int runs;
+
+        private Result(double[] neighbourhood, double[] neighbourhoodError, double[] distribution,
+                double[] distributionError, double averageDistance, double averageDistanceError,
+                double effectiveDiameter, double effectiveDiameterError, double relativeStandardDeviation,
+                int runs) {
+            this.neighbourhood = neighbourhood;
+            this.neighbourhoodError = neighbourhoodError;
+            this.distribution = distribution;
+            this.distributionError = distributionError;
+            this.averageDistance = averageDistance;
+            this.averageDistanceError = averageDistanceError;
+            this.effectiveDiameter = effectiveDiameter;
+            this.effectiveDiameterError = effectiveDiameterError;
+            this.relativeStandardDeviation = relativeStandardDeviation;
+            this.runs = runs;
+        }
+
+        /**
+         * Returns the estimated neighbourhood function: entry t is the
+         * number of ordered pairs (v, w), including v = w, with
+         * d(v, w) &lt;= t. The last entry counts all reachable pairs.
+         *
+         * @return N(0) .. N(T).
+         */
+        public double[] getNeighbourhoodFunction() {
+            return neighbourhood;
+        }
+
+        /**
+         * Returns the standard error of every N(t): the spread of the runs
+         * if there were several, otherwise the worst-case bound
+         * 1.04 / sqrt(m) times N(t).
+         *
+         * @return The standard errors.
+         */
+        public double[] getNeighbourhoodFunctionError() {
+            return neighbourhoodError;
+        }
+
+        /**
+         * Returns the cumulative distance distribution: entry t is the
+         * fraction of reachable pairs of distinct vertices at distance at
+         * most t.
+         *
+         * @return The distribution, from t = 0.
+         */
+        public double[] getDistanceDistribution() {
+            return distribution;
+        }
+
+        /**
+         * Returns the standard error of every entry of the distance
+         * distribution, NaN after a single run.
+         *
+         * @return The standard errors.
+         */
+        public double[] getDistanceDistributionError() {
+            return distributionError;
+        }
+
+        /**
+         * Returns the average distance between reachable pairs of distinct
+         * vertices.
+         *
+         * @return The average distance.
+         */
+        public double getAverageDistance() {
+            return averageDistance;
+        }
+
+        /**
+         * Returns the standard error of the average distance, NaN after a
+         * single run.
+         *
+         * @return The standard error.
+         */
+        public double getAverageDistanceError() {
+            return averageDistanceError;
+        }
+
+        /**
+         * Returns the effective diameter: the (interpolated) distance within
+         * which 90% of the reachable pairs lie.
+         *
+         * @return The effective diameter.
+         */
+        public double getEffectiveDiameter() {
+            return effectiveDiameter;
+        }
+
+        /**
+         * Returns the standard error of the effective diameter, NaN after a
+         * single run.
+         *
+         * @return The standard error.
+         */
+        public double getEffectiveDiameterError() {
+            return effectiveDiameterError;
+        }
+
+        /**
+         * Returns the bound 1.04 / sqrt(m) on the relative standard deviation
+         * of a single run's N(t).
+         *
+         * @return The relative standard deviation bound.
+         */
+        public double getRelativeStandardDeviation() {
+            return relativeStandardDeviation;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+    }
+
+    /**
+     * Computes the approximate neighbourhood function of a graph given as an
+     * adjacency matrix, where every non-zero entry is an arc, with the
+     * default precision and number of runs.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The neighbourhood function and derived statistics.
+     */
+    public static Result compute(double[][] adjacencyMatrix) {
+        return compute(SparseGraph.fromMatrix(adjacencyMatrix), DEFAULT_LOG2_REGISTERS, DEFAULT_RUNS, false,
+                System.nanoTime(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the approximate neighbourhood function of a sparse graph,
+     * following outgoing arcs and ignoring weights.
+     *
+     * @param graph          The sparse graph.
+     * @param log2Registers  The base two logarithm b of the number of
+     *                       registers per counter, from 4 to 16; memory is
+     *                       about 2^b * 10 / 12 bytes per vertex and the
+     *                       relative standard deviation 1.04 / 2^(b/2).
+     * @param runs           The number of independent runs.
+     * @param offHeap        Whether to keep the registers in direct buffers
+     *                       outside the Java heap.
+     * @param seed           The seed of the hash functions.
+     * @param pool           The pool running the iteration.
+     * @return The neighbourhood function and derived statistics.
+     */
+    public static Result compute(SparseGraph graph, int log2Registers, int runs, boolean offHeap, long seed,
+            ForkJoinPool pool) {
+        if (log2Registers < 4 || log2Registers > 16) {
+            throw new IllegalArgumentException("The register count must be between 2^4 and 2^16.");
+        }
+        if (runs < 1) {
+            throw new IllegalArgumentException("At least one run is required.");
+        }
+        int registers = 1 << log2Registers;
+        Random random = new Random(seed);
+        double[][] functions = new double[runs][];
+        for (int run = 0; run < runs; run++) {
+            functions[run] = neighbourhoodFunction(graph, log2Registers, offHeap, random.nextLong(), pool);
+        }
+        return summarise(functions, 1.04 / Math.sqrt(registers));
+    }
+
+    /**
+     * Runs the HyperANF iteration once and returns N(0) .. N(T).
+     */
+    private static double[] neighbourhoodFunction(SparseGraph graph, int log2Registers, boolean offHeap,
+            long salt, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int registers = 1 << log2Registers;
+        int words = (registers + REGISTERS_PER_WORD - 1) / REGISTERS_PER_WORD;
+
+        Registers current = Registers.allocate((long) n * words, offHeap);
+        Registers next = Registers.allocate((long) n * words, offHeap);
+        double[] sizes = new double[n];
+        boolean[] changed = new boolean[n];
+        boolean[] changedNext = new boolean[n];
+
+        // Round 0: every counter holds its own vertex
+        for (int v = 0; v < n; v++) {
+            long hash = mix(v ^ salt);
+            int register = (int) (hash >>> (64 - log2Registers));
+            int rank = Math.min(MAX_REGISTER, Long.numberOfLeadingZeros(hash << log2Registers) + 1);
+            long index = (long) v * words + register / REGISTERS_PER_WORD;
+            current.set(index, (long) rank << (REGISTER_BITS * (register % REGISTERS_PER_WORD)));
+            changed[v] = true;
+        }
+        // One occupied register: linear counting gives m ln(m / (m - 1))
+        double single = registers * Math.log(registers / (registers - 1.0));
+        Arrays.fill(sizes, single);
+
+        double[] function = new double[16];
+        function[0] = single * n;
+        int rounds = 0;
+        int blocks = (n + VERTEX_BLOCK - 1) / VERTEX_BLOCK;
+        double[] blockSum = new double[blocks];
+        int[] blockChanged = new int[blocks];
+
+        while (true) {
+            Registers in = current;
+            Registers out = next;
+            boolean[] was = changed;
+            boolean[] is = changedNext;
+            pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(block -> {
+                long[] counter = new long[words];
+                double sum = 0.0;
+                int count = 0;
+                int to = Math.min(n, (block + 1) * VERTEX_BLOCK);
+                for (int v = block * VERTEX_BLOCK; v < to; v++) {
+                    long base = (long) v * words;
+                    for (int i = 0; i < words; i++) {
+                        counter[i] = in.get(base + i);
+                    }
+                    boolean grew = false;
+                    for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                        int w = targets[a];
+                        if (!was[w] || w == v) {
+                            continue;
+                        }
+                        long other = (long) w * words;
+                        for (int i = 0; i < words; i++) {
+                            long x = counter[i];
+                            long y = in.get(other + i);
+                            long maximum = max(x, y);
+                            if (maximum != x) {
+                                counter[i] = maximum;
+                                grew = true;
+                            }
+                        }
+                    }
+                    for (int i = 0; i < words; i++) {
+                        out.set(base + i, counter[i]);
+                    }
+                    is[v] = grew;
+                    if (grew) {
+                        sizes[v] = estimate(counter, registers);
+                        count++;
+                    }
+                    sum += sizes[v];
+                }
+                blockSum[block] = sum;
+                blockChanged[block] = count;
+            })).join();
+
+            int changes = 0;
+            double total = 0.0;
+            for (int b = 0; b < blocks; b++) {
+                changes += blockChanged[b];
+                total += blockSum[b];
+            }
+            if (changes == 0) {
+                break;
+            }
+            rounds++;
+            if (rounds == function.length) {
+                function = Arrays.copyOf(function, 2 * rounds);
+            }
+            function[rounds] = total;
+
+            current = out;
+            next = in;
+            changed = is;
+            changedNext = was;
+        }
+
+        return Arrays.copyOf(function, rounds + 1);
+    }
+
+    /**
+     * Averages the runs and derives the distance statistics with their
+     * standard errors.
+     */
+    private static Result summarise(double[][] functions, double relativeStandardDeviation) {
+        int runs = functions.length;
+        int length = 0;
+        for (double[] function : functions) {
+            length = Math.max(length, function.length);
+        }
+
+        double[][] padded = new double[runs][];
+        double[][] distributions = new double[runs][];
+        double[] averages = new double[runs];
+        double[] diameters = new double[runs];
+        for (int run = 0; run < runs; run++) {
+            double[] function = Arrays.copyOf(functions[run], length);
+            for (int t = functions[run].length; t < length; t++) {
+                function[t] = function[t - 1];
+            }
+            padded[run] = function;
+            double[] distribution = new double[length];
+            double pairs = function[length - 1] - function[0];
+            for (int t = 0; t < length; t++) {
+                distribution[t] = pairs <= 0 ? 1.0 : (function[t] - function[0]) / pairs;
+            }
+            distributions[run] = distribution;
+
+            double average = 0.0;
+            for (int t = 1; t < length; t++) {
+                average += t * (distribution[t] - distribution[t - 1]);
+            }
+            averages[run] = average;
+            diameters[run] = quantile(distribution, EFFECTIVE_QUANTILE);
+        }
+
+        double[] neighbourhood = new double[length];
+        double[] neighbourhoodError = new double[length];
+        double[] distribution = new double[length];
+        double[] distributionError = new double[length];
+        double[] column = new double[runs];
+        for (int t = 0; t < length; t++) {
+            for (int run = 0; run < runs; run++) {
+                column[run] = padded[run][t];
+            }
+            neighbourhood[t] = mean(column);
+            neighbourhoodError[t] = runs > 1 ? standardError(column)
+                    : relativeStandardDeviation * neighbourhood[t];
+            for (int run = 0; run < runs; run++) {
+                column[run] = distributions[run][t];
+            }
+            distribution[t] = mean(column);
+            distributionError[t] = standardError(column);
+        }
+
+        return new Result(neighbourhood, neighbourhoodError, distribution, distributionError, mean(averages),
+                standardError(averages), mean(diameters), standardError(diameters), relativeStandardDeviation,
+                runs);
+    }
+
+    /**
+     * Returns the interpolated distance at which a cumulative distribution
+     * reaches a quantile.
+     */
+    private static double quantile(double[] distribution, double q) {
+        for (int t = 1; t < distribution.length; t++) {
+            if (distribution[t] >= q) {
+                return t - 1 + (q - distribution[t - 1]) / (distribution[t] - distribution[t - 1]);
+            }
+        }
+        return distribution.length - 1;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Returns the standard error of the mean of a sample, NaN for a single
+     * value.
+     */
+    private static double standardError(double[] values) {
+        if (values.length < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(values);
+        double squares = 0.0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(squares / (values.length - 1) / values.length);
+    }
+
+    /**
+     * Register-wise maximum of two words of packed registers. Adding the
+     * high lane bit to x and clearing it in y lets one subtraction compare
+     * the low bits of all lanes without borrows crossing lanes; the high bits
+     * then decide the lanes where x and y differ there.
+     */
+    private static long max(long x, long y) {
+        long low = (x | HIGH_BITS) - (y & ~HIGH_BITS);
+        long greaterOrEqual = ((x & ~y) | (~(x ^ y) & low)) & HIGH_BITS;
+        long mask = (greaterOrEqual >>> (REGISTER_BITS - 1)) * MAX_REGISTER;
+        return (x & mask) | (y & ~mask);
+    }
+
+    /**
+     * Returns the HyperLogLog estimate of a counter's cardinality, with
+     * linear counting for small cardinalities.
+     */
+    private static double estimate(long[] counter, int registers) {
+        double sum = 0.0;
+        int zeros = 0;
+        int register = 0;
+        for (int i = 0; i < counter.length && register < registers; i++) {
+            long word = counter[i];
+            for (int j = 0; j < REGISTERS_PER_WORD && register < registers; j++, register++) {
+                int value = (int) (word >>> (REGISTER_BITS * j)) & MAX_REGISTER;
+                sum += Double.longBitsToDouble((1023L - value) << 52);
+                if (value == 0) {
+                    zeros++;
+                }
+            }
+        }
+        double alpha = registers == 16 ? 0.673 : registers == 32 ? 0.697 : registers == 64 ? 0.709
+                : 0.7213 / (1 + 1.079 / registers);
+        double raw = alpha * registers * registers / sum;
+        if (raw <= 2.5 * registers && zeros > 0) {
+            return registers * Math.log((double) registers / zeros);
+        }
+        return raw;
+    }
+
+    /**
+     * Fills every register lane of a word with the same value.
+     */
+    private static long lanes(long value) {
+        long word = 0;
+        for (int j = 0; j < REGISTERS_PER_WORD; j++) {
+            word |= value << (REGISTER_BITS * j);
+        }
+        return word;
+    }
+
+    /**
+     * The SplitMix64 finaliser, a fast hash with good avalanche.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Packed register words, on the heap or in direct buffers.
+     */
+    private abstract static class Registers {
+        abstract long get(long index);
+
+        abstract void set(long index, long value);
+
+        static Registers allocate(long size, boolean offHeap) {
+            return offHeap ? new OffHeapRegisters(size) : new HeapRegisters(size);
+        }
+    }
+
+    private static final class HeapRegisters extends Registers {
+        private final long[] words;
+
+        HeapRegisters(long size) {
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many registers for the heap; use off-heap registers.");
+            }
+            this.words = new long[(int) size];
+        }
+
+        @Override
+        long get(long index) {
+            return words[(int) index];
+        }
+
+        @Override
+        void set(long index, long value) {
+            words[(int) index] = value;
+        }
+    }
+
+    /**
+     * Registers in direct buffers of 2^27 longs (1 GiB) each, so their total
+     * size is not bounded by the Java array limit or the heap size.
+     */
+    private static final class OffHeapRegisters extends Registers {
+        private static final int CHUNK_BITS = 27;
+        private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+        private final LongBuffer[] chunks;
+
+        OffHeapRegisters(long size) {
+            int count = (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+            this.chunks = new LongBuffer[count];
+            for (int c = 0; c < count; c++) {
+                long length = Math.min(1L << CHUNK_BITS, size - ((long) c << CHUNK_BITS));
+                chunks[c] = ByteBuffer.allocateDirect((int) length * Long.BYTES).order(ByteOrder.nativeOrder())
+                        .asLongBuffer();
+            }
+        }
+
+        @Override
+        long get(long index) {
+            return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+        }
+
+        @Override
+        void set(long index, long value) {
+            chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+        }
+    }
+
+    /**
+     * Example usage of the HyperAnf class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        // A path of five vertices: distances 1, 2, 3 and 4
+        double[][] adjacencyMatrix = new double[5][5];
+        for (int v = 0; v < 4; v++) {
+            adjacencyMatrix[v][v + 1] = adjacencyMatrix[v + 1][v] = 1;
+        }
+        Result result = compute(adjacencyMatrix);
+        System.out.println("Neighbourhood Function: " + Arrays.toString(result.getNeighbourhoodFunction()));
+        System.out.println("Average Distance: " + result.getAverageDistance());
+
+        // Random undirected graph with 200,000 vertices and 1,000,000 edges
+        int n = 200000;
+        Random random = new Random(19);
+        int[] degree = new int[n];
+        int[][] pairs = new int[1000000][];
+        for (int e = 0; e < pairs.length; e++) {
+            int u = random.nextInt(n);
+            int v = (u + 1 + random.nextInt(n - 1)) % n;
+            pairs[e] = new int[] { u, v };
+            degree[u]++;
+            degree[v]++;
+        }
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int[] pair : pairs) {
+            targets[fill[pair[0]]++] = pair[1];
+            targets[fill[pair[1]]++] = pair[0];
+        }
+        double[] weights = new double[targets.length];
+        Arrays.fill(weights, 1.0);
+        SparseGraph graph = new SparseGraph(n, offsets, targets, weights);
+
+        long start = System.nanoTime();
+        Result large = compute(graph, 6, 2, true, 23, ForkJoinPool.commonPool());
+        System.out.printf("Average distance %.3f +- %.3f, effective diameter %.3f +- %.3f (%.1f ms)%n",
+                large.getAverageDistance(), large.getAverageDistanceError(), large.getEffectiveDiameter(),
+                large.getEffectiveDiameterError(), (System.nanoTime() - start) / 1e6);
+    }
+}
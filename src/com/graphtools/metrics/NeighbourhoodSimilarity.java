@@ -0,0 +1,792 @@
+package com.graphtools.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * Top-k join of vertex pairs by the similarity of their neighbourhoods:
+ * Jaccard |N(u) & N(v)| / |N(u) | N(v)|, cosine
+ * |N(u) & N(v)| / sqrt(|N(u)| |N(v)|), or Adamic-Adar, the sum of
+ * 1 / ln d(w) over the common neighbours w. Only pairs with a common
+ * neighbour have a non-zero score, so only those are ever reported.
+ * <p>
+ * The exact join uses prefix filtering with a rising threshold. Neighbours
+ * are ordered globally from rare to frequent; if a pair scores at least tau,
+ * its first common neighbour lies in a short prefix of both lists, whose
+ * length follows from tau and the list size (or, for Adamic-Adar, from the
+ * weights left in the suffix). A cheap seeding pass fixes a first threshold,
+ * the prefixes are indexed, and then every vertex in parallel probes the
+ * index with its own prefix, drops candidates by a size bound and scores the
+ * rest against a bitset of its neighbours. Workers publish the k-th best score
+ * they hold, which only raises the threshold and shortens later prefixes.
+ * <p>
+ * The approximate join draws MinHash signatures of the neighbourhoods and
+ * splits them into bands; two vertices become a candidate pair if they agree
+ * on every row of some band, which happens with probability
+ * 1 - (1 - J^r)^b for Jaccard similarity J. Candidates are scored exactly,
+ * so reported scores are exact but pairs may be missed.
+ * <p>
+ * Both joins keep one bounded heap of k pairs per worker; besides the graph
+ * itself, memory is O(n) per worker and the prefix index or band hashes,
+ * never O(n^2).
+ */
+public class NeighbourhoodSimilarity {
+
+    /**
+     * Number of vertices a parallel worker claims at a time.
+     */
+    private static final int VERTEX_BLOCK = 64;
+
+    /**
+     * Number of pairs per vertex scored while seeding the threshold.
+     */
+    private static final int SEED_PAIRS = 4;
+
+    /**
+     * Slack that keeps prefixes on the safe side of rounding errors.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private NeighbourhoodSimilarity() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * The similarity measures.
+     */
+    public enum Measure {
+        JACCARD, COSINE, ADAMIC_ADAR
+    }
+
+    /**
+     * The k best pairs, in descending order of score, ties by ascending pair.
+     */
+    public static class Result {
+        private final int[][] pairs;
+        private final double[] scores;
+        private final long candidateCount;
+
+        private Result(int[][] pairs, double[] scores, long candidateCount) {
+            this.pairs = pairs;
+            this.scores = scores;
+            this.candidateCount = candidateCount;
+        }
+
+        /**
+         * Returns the pairs as {u, v} with u &lt; v. There are fewer than k
+         * if fewer pairs share a neighbour.
+         *
+         * @return The pairs, best first.
+         */
+        public int[][] getPairs() {
+            return pairs;
+        }
+
+        /**
+         * Returns the score of every pair.
+         *
+         * @return The scores, in the order of {@link #getPairs()}.
+         */
+        public double[] getScores() {
+            return scores;
+        }
+
+        /**
+         * Returns the number of pairs whose similarity was computed, a measure
+         * of how much the filters pruned.
+         *
+         * @return The number of scored pairs.
+         */
+        public long getCandidateCount() {
+            return candidateCount;
+        }
+    }
+
+    /**
+     * Finds the k most similar vertex pairs of a graph given as an adjacency
+     * matrix. The matrix is read as an undirected graph: i and j are adjacent
+     * if either entry is non-zero, and self loops are ignored.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @param measure         The similarity measure.
+     * @param k               The number of pairs wanted.
+     * @return The k best pairs.
+     */
+    public static Result topK(double[][] adjacencyMatrix, Measure measure, int k) {
+        return topK(SparseGraph.undirectedFromMatrix(adjacencyMatrix), measure, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the k most similar vertex pairs exactly, with prefix filtering.
+     *
+     * @param graph   An undirected graph without self loops, every edge
+     *                stored as two arcs (see
+     *                {@link SparseGraph#undirectedFromMatrix}).
+     * @param measure The similarity measure.
+     * @param k       The number of pairs wanted.
+     * @param pool    The pool running the workers.
+     * @return The k best pairs.
+     */
+    public static Result topK(SparseGraph graph, Measure measure, int k, ForkJoinPool pool) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive.");
+        }
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = vertexWeights(graph, measure);
+        double[] totals = weightTotals(graph, weights);
+        int workers = Math.max(1, Math.min(pool.getParallelism(), n));
+
+        // Neighbour lists in the global order, rarest first, as ranks
+        int[] order = TriangleCounting.degreeOrder(graph);
+        int[] rank = new int[n];
+        for (int r = 0; r < n; r++) {
+            rank[order[r]] = r;
+        }
+        double[] rankWeights = new double[n];
+        for (int r = 0; r < n; r++) {
+            rankWeights[r] = weights[order[r]];
+        }
+        int[] ranked = new int[targets.length];
+        forEachBlock(pool, workers, n, u -> {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                ranked[a] = rank[targets[a]];
+            }
+            Arrays.sort(ranked, offsets[u], offsets[u + 1]);
+        });
+
+        // Seed: a few pairs through each vertex's rarest neighbour
+        TopPairs[] seeds = new TopPairs[workers];
+        AtomicInteger nextVertex = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            TopPairs heap = new TopPairs(k);
+            int from;
+            while ((from = nextVertex.getAndAdd(VERTEX_BLOCK)) < n) {
+                int to = Math.min(n, from + VERTEX_BLOCK);
+                for (int u = from; u < to; u++) {
+                    if (offsets[u] == offsets[u + 1]) {
+                        continue;
+                    }
+                    int w = order[ranked[offsets[u]]];
+                    int taken = 0;
+                    for (int a = offsets[w]; a < offsets[w + 1] && taken < SEED_PAIRS; a++) {
+                        int v = targets[a];
+                        if (v > u) {
+                            heap.offer(u, v, similarity(measure, offsets, targets, weights, u, v));
+                            taken++;
+                        }
+                    }
+                }
+            }
+            seeds[worker] = heap;
+        })).join();
+        TopPairs seeded = merge(seeds, k);
+        double seedThreshold = seeded.isFull() ? seeded.worstScore() : 0.0;
+
+        // Index of the prefixes under the seed threshold
+        int[] prefixes = new int[n];
+        int[] indexOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            prefixes[u] = prefixLength(measure, ranked, offsets, rankWeights, u, seedThreshold);
+            for (int i = 0; i < prefixes[u]; i++) {
+                indexOffsets[ranked[offsets[u] + i] + 1]++;
+            }
+        }
+        for (int r = 0; r < n; r++) {
+            indexOffsets[r + 1] += indexOffsets[r];
+        }
+        int[] index = new int[indexOffsets[n]];
+        int[] fill = Arrays.copyOf(indexOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < prefixes[u]; i++) {
+                index[fill[ranked[offsets[u] + i]]++] = u;
+            }
+        }
+
+        // Probe, filter and score, each pair at its smaller endpoint
+        AtomicLong threshold = new AtomicLong(Double.doubleToLongBits(seedThreshold));
+        AtomicLong candidates = new AtomicLong();
+        TopPairs[] heaps = new TopPairs[workers];
+        nextVertex.set(0);
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            TopPairs heap = new TopPairs(k);
+            long[] bits = new long[(n + 63) >>> 6];
+            int[] seen = new int[n];
+            int[] found = new int[n];
+            long scored = 0;
+            int from;
+            while ((from = nextVertex.getAndAdd(VERTEX_BLOCK)) < n) {
+                int to = Math.min(n, from + VERTEX_BLOCK);
+                for (int u = from; u < to; u++) {
+                    double tau = Double.longBitsToDouble(threshold.get());
+                    int prefix = Math.min(prefixes[u], prefixLength(measure, ranked, offsets, rankWeights, u, tau));
+                    int count = 0;
+                    for (int i = 0; i < prefix; i++) {
+                        int token = ranked[offsets[u] + i];
+                        for (int j = indexOffsets[token]; j < indexOffsets[token + 1]; j++) {
+                            int v = index[j];
+                            if (v > u && seen[v] != u + 1) {
+                                seen[v] = u + 1;
+                                found[count++] = v;
+                            }
+                        }
+                    }
+                    if (count == 0) {
+                        continue;
+                    }
+
+                    int du = offsets[u + 1] - offsets[u];
+                    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                        bits[targets[a] >>> 6] |= 1L << targets[a];
+                    }
+                    for (int c = 0; c < count; c++) {
+                        int v = found[c];
+                        int dv = offsets[v + 1] - offsets[v];
+                        if (upperBound(measure, du, dv, totals[u], totals[v]) < tau) {
+                            continue;
+                        }
+                        double common = 0.0;
+                        for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                            int w = targets[a];
+                            if ((bits[w >>> 6] & (1L << w)) != 0) {
+                                common += weights[w];
+                            }
+                        }
+                        scored++;
+                        if (heap.offer(u, v, score(measure, common, du, dv)) && heap.isFull()) {
+                            long worst = Double.doubleToLongBits(heap.worstScore());
+                            threshold.accumulateAndGet(worst, Math::max);
+                            tau = Double.longBitsToDouble(threshold.get());
+                        }
+                    }
+                    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                        bits[targets[a] >>> 6] = 0;
+                    }
+                }
+            }
+            candidates.addAndGet(scored);
+            heaps[worker] = heap;
+        })).join();
+
+        return merge(heaps, k).toResult(candidates.get());
+    }
+
+    /**
+     * Finds approximately the k most similar vertex pairs with MinHash
+     * signatures and LSH banding. A pair with Jaccard similarity J becomes a
+     * candidate with probability 1 - (1 - J^rows)^bands; the threshold where
+     * this probability rises steeply is roughly (1 / bands)^(1 / rows). For
+     * cosine and Adamic-Adar the banding still selects pairs with overlapping
+     * neighbourhoods, and every candidate is scored with the requested
+     * measure.
+     *
+     * @param graph   An undirected graph without self loops, every edge
+     *                stored as two arcs.
+     * @param measure The similarity measure.
+     * @param k       The number of pairs wanted.
+     * @param bands   The number of bands b.
+     * @param rows    The number of signature rows per band r.
+     * @param seed    The seed of the hash functions.
+     * @param pool    The pool running the workers.
+     * @return The best pairs among the candidates.
+     */
+    public static Result approximateTopK(SparseGraph graph, Measure measure, int k, int bands, int rows, long seed,
+            ForkJoinPool pool) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive.");
+        }
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("The numbers of bands and rows must be positive.");
+        }
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = vertexWeights(graph, measure);
+        double[] totals = weightTotals(graph, weights);
+        int workers = Math.max(1, Math.min(pool.getParallelism(), n));
+
+        int hashes = bands * rows;
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] multipliers = new long[hashes];
+        long[] increments = new long[hashes];
+        for (int h = 0; h < hashes; h++) {
+            multipliers[h] = random.nextLong() | 1L;
+            increments[h] = random.nextLong();
+        }
+
+        // One hash per band and vertex, folded from the band's MinHash rows
+        int[][] bandHashes = new int[bands][n];
+        AtomicInteger nextVertex = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            int[] signature = new int[hashes];
+            int from;
+            while ((from = nextVertex.getAndAdd(VERTEX_BLOCK)) < n) {
+                int to = Math.min(n, from + VERTEX_BLOCK);
+                for (int u = from; u < to; u++) {
+                    Arrays.fill(signature, Integer.MAX_VALUE);
+                    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                        long x = mix(targets[a]);
+                        for (int h = 0; h < hashes; h++) {
+                            signature[h] = Math.min(signature[h], (int) ((x * multipliers[h] + increments[h]) >>> 33));
+                        }
+                    }
+                    for (int b = 0; b < bands; b++) {
+                        long folded = b;
+                        for (int r = 0; r < rows; r++) {
+                            folded = (folded + signature[b * rows + r]) * 0x9E3779B97F4A7C15L;
+                        }
+                        bandHashes[b][u] = (int) (folded >>> 32);
+                    }
+                }
+            }
+        })).join();
+
+        // Buckets of two or more vertices, as ranges of sorted (hash, vertex)
+        long[][] sorted = new long[bands][];
+        pool.submit(() -> IntStream.range(0, bands).parallel().forEach(b -> {
+            long[] keys = new long[n];
+            int count = 0;
+            for (int u = 0; u < n; u++) {
+                if (offsets[u] < offsets[u + 1]) {
+                    keys[count++] = ((long) bandHashes[b][u] << 32) | u;
+                }
+            }
+            keys = Arrays.copyOf(keys, count);
+            Arrays.sort(keys);
+            sorted[b] = keys;
+        })).join();
+        int bucketCount = 0;
+        for (long[] keys : sorted) {
+            for (int i = 0; i < keys.length;) {
+                int j = bucketEnd(keys, i);
+                bucketCount += j - i > 1 ? 1 : 0;
+                i = j;
+            }
+        }
+        int[] bucketBands = new int[bucketCount];
+        int[] bucketStarts = new int[bucketCount];
+        int[] bucketEnds = new int[bucketCount];
+        bucketCount = 0;
+        for (int b = 0; b < bands; b++) {
+            long[] keys = sorted[b];
+            for (int i = 0; i < keys.length;) {
+                int j = bucketEnd(keys, i);
+                if (j - i > 1) {
+                    bucketBands[bucketCount] = b;
+                    bucketStarts[bucketCount] = i;
+                    bucketEnds[bucketCount++] = j;
+                }
+                i = j;
+            }
+        }
+
+        // Score every pair in the first band where it collides
+        int buckets = bucketCount;
+        AtomicInteger nextBucket = new AtomicInteger();
+        AtomicLong threshold = new AtomicLong(Double.doubleToLongBits(0.0));
+        AtomicLong candidates = new AtomicLong();
+        TopPairs[] heaps = new TopPairs[workers];
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            TopPairs heap = new TopPairs(k);
+            long scored = 0;
+            int bucket;
+            while ((bucket = nextBucket.getAndIncrement()) < buckets) {
+                int band = bucketBands[bucket];
+                long[] keys = sorted[band];
+                for (int i = bucketStarts[bucket]; i < bucketEnds[bucket]; i++) {
+                    int u = (int) keys[i];
+                    for (int j = i + 1; j < bucketEnds[bucket]; j++) {
+                        int v = (int) keys[j];
+                        boolean earlier = false;
+                        for (int b = 0; b < band && !earlier; b++) {
+                            earlier = bandHashes[b][u] == bandHashes[b][v];
+                        }
+                        double tau = Double.longBitsToDouble(threshold.get());
+                        if (earlier || upperBound(measure, offsets[u + 1] - offsets[u], offsets[v + 1] - offsets[v],
+                                totals[u], totals[v]) < tau) {
+                            continue;
+                        }
+                        scored++;
+                        double score = similarity(measure, offsets, targets, weights, u, v);
+                        if (score > 0 && heap.offer(u, v, score) && heap.isFull()) {
+                            threshold.accumulateAndGet(Double.doubleToLongBits(heap.worstScore()), Math::max);
+                        }
+                    }
+                }
+            }
+            candidates.addAndGet(scored);
+            heaps[worker] = heap;
+        })).join();
+
+        return merge(heaps, k).toResult(candidates.get());
+    }
+
+    /**
+     * The weight each common neighbour adds to the overlap: 1 / ln d(w) for
+     * Adamic-Adar, 1 otherwise.
+     */
+    private static double[] vertexWeights(SparseGraph graph, Measure measure) {
+        double[] weights = new double[graph.getVertexCount()];
+        for (int w = 0; w < weights.length; w++) {
+            int degree = graph.getDegree(w);
+            if (measure != Measure.ADAMIC_ADAR) {
+                weights[w] = 1.0;
+            } else {
+                weights[w] = degree < 2 ? 0.0 : 1.0 / Math.log(degree);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * The total neighbour weight of every vertex, an upper bound on its
+     * Adamic-Adar score with anyone.
+     */
+    private static double[] weightTotals(SparseGraph graph, double[] weights) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] totals = new double[graph.getVertexCount()];
+        for (int u = 0; u < totals.length; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                totals[u] += weights[targets[a]];
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Returns how many of u's neighbours, in the global order, must be probed
+     * to find every partner scoring at least tau: with overlap alpha needed,
+     * the first common neighbour is among the first d - alpha + 1; with
+     * weights, it is before the point where the remaining weight drops below
+     * tau.
+     */
+    private static int prefixLength(Measure measure, int[] ranked, int[] offsets, double[] rankWeights, int u,
+            double tau) {
+        int degree = offsets[u + 1] - offsets[u];
+        if (tau <= 0) {
+            return degree;
+        }
+        switch (measure) {
+            case JACCARD:
+                return overlapPrefix(degree, (int) Math.ceil(tau * degree - EPSILON));
+            case COSINE:
+                return overlapPrefix(degree, (int) Math.ceil(tau * tau * degree - EPSILON));
+            default:
+                double bound = tau * (1 - EPSILON);
+                double suffix = 0.0;
+                int prefix = degree;
+                while (prefix > 0 && suffix + rankWeights[ranked[offsets[u] + prefix - 1]] < bound) {
+                    suffix += rankWeights[ranked[offsets[u] + prefix - 1]];
+                    prefix--;
+                }
+                return prefix;
+        }
+    }
+
+    private static int overlapPrefix(int degree, int overlap) {
+        return Math.max(0, Math.min(degree, degree - overlap + 1));
+    }
+
+    /**
+     * Bounds the score of a pair from the list sizes alone, rounded up so a
+     * pair scoring exactly the threshold is never dropped.
+     */
+    private static double upperBound(Measure measure, int du, int dv, double totalU, double totalV) {
+        double bound;
+        switch (measure) {
+            case JACCARD:
+                bound = (double) Math.min(du, dv) / Math.max(du, dv);
+                break;
+            case COSINE:
+                bound = Math.sqrt((double) Math.min(du, dv) / Math.max(du, dv));
+                break;
+            default:
+                bound = Math.min(totalU, totalV);
+                break;
+        }
+        return bound * (1 + EPSILON);
+    }
+
+    /**
+     * Turns the weighted overlap of two neighbourhoods into a score.
+     */
+    private static double score(Measure measure, double common, int du, int dv) {
+        switch (measure) {
+            case JACCARD:
+                return common / (du + dv - common);
+            case COSINE:
+                return common / Math.sqrt((double) du * dv);
+            default:
+                return common;
+        }
+    }
+
+    /**
+     * Scores a pair by merging the two sorted neighbour lists.
+     */
+    private static double similarity(Measure measure, int[] offsets, int[] targets, double[] weights, int u,
+            int v) {
+        double common = 0.0;
+        int i = offsets[u];
+        int j = offsets[v];
+        while (i < offsets[u + 1] && j < offsets[v + 1]) {
+            if (targets[i] < targets[j]) {
+                i++;
+            } else if (targets[i] > targets[j]) {
+                j++;
+            } else {
+                common += weights[targets[i]];
+                i++;
+                j++;
+            }
+        }
+        return score(measure, common, offsets[u + 1] - offsets[u], offsets[v + 1] - offsets[v]);
+    }
+
+    private static int bucketEnd(long[] keys, int start) {
+        int end = start + 1;
+        while (end < keys.length && (keys[end] >>> 32) == (keys[start] >>> 32)) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * The SplitMix64 finalizer, spreading vertex indices over 64 bits.
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    private static void forEachBlock(ForkJoinPool pool, int workers, int n, IntConsumer body) {
+        AtomicInteger next = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            int from;
+            while ((from = next.getAndAdd(VERTEX_BLOCK)) < n) {
+                int to = Math.min(n, from + VERTEX_BLOCK);
+                for (int u = from; u < to; u++) {
+                    body.accept(u);
+                }
+            }
+        })).join();
+    }
+
+    private static TopPairs merge(TopPairs[] heaps, int k) {
+        TopPairs merged = new TopPairs(k);
+        for (TopPairs heap : heaps) {
+            for (int i = 0; i < heap.size; i++) {
+                merged.offer(heap.pairs[i], heap.scores[i]);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * A bounded min-heap of the best k pairs seen, a pair packed as u in the
+     * high and v in the low 32 bits. The root is the worst pair: lowest score,
+     * ties by the larger pair.
+     */
+    private static class TopPairs {
+        private final long[] pairs;
+        private final double[] scores;
+        private int size;
+
+        TopPairs(int capacity) {
+            this.pairs = new long[capacity];
+            this.scores = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == pairs.length;
+        }
+
+        double worstScore() {
+            return scores[0];
+        }
+
+        boolean offer(int u, int v, double score) {
+            return offer(((long) u << 32) | v, score);
+        }
+
+        /**
+         * Adds a pair if the heap has room or the pair beats the root.
+         */
+        boolean offer(long pair, double score) {
+            if (size < pairs.length) {
+                pairs[size] = pair;
+                scores[size] = score;
+                siftUp(size++);
+                return true;
+            }
+            if (!worse(pairs[0], scores[0], pair, score)) {
+                return false;
+            }
+            pairs[0] = pair;
+            scores[0] = score;
+            siftDown(0);
+            return true;
+        }
+
+        private static boolean worse(long pair, double score, long otherPair, double otherScore) {
+            return score < otherScore || (score == otherScore && pair > otherPair);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!worse(pairs[i], scores[i], pairs[parent], scores[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && worse(pairs[child + 1], scores[child + 1], pairs[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(pairs[child], scores[child], pairs[i], scores[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long pair = pairs[i];
+            pairs[i] = pairs[j];
+            pairs[j] = pair;
+            double score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+
+        /**
+         * Empties the heap, worst pair first, into a best-first result.
+         */
+        Result toResult(long candidateCount) {
+            int count = size;
+            int[][] result = new int[count][];
+            double[] resultScores = new double[count];
+            for (int i = count - 1; i >= 0; i--) {
+                result[i] = new int[] { (int) (pairs[0] >>> 32), (int) pairs[0] };
+                resultScores[i] = scores[0];
+                size--;
+                pairs[0] = pairs[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return new Result(result, resultScores, candidateCount);
+        }
+    }
+
+    /**
+     * Example usage of the NeighbourhoodSimilarity class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        double[][] adjacencyMatrix = {
+                { 0, 1, 1, 1, 0, 0 },
+                { 1, 0, 1, 0, 1, 0 },
+                { 1, 1, 0, 1, 1, 0 },
+                { 1, 0, 1, 0, 0, 1 },
+                { 0, 1, 1, 0, 0, 1 },
+                { 0, 0, 0, 1, 1, 0 }
+        };
+
+        for (Measure measure : Measure.values()) {
+            Result result = topK(adjacencyMatrix, measure, 3);
+            System.out.println(measure + ": " + Arrays.deepToString(result.getPairs()) + " "
+                    + Arrays.toString(result.getScores()));
+        }
+
+        // Random graph with 50,000 vertices and about 300,000 edges, with
+        // some vertices copying most of another's neighbourhood
+        int n = 50000;
+        Random random = new Random(19);
+        int[][] lists = new int[n][];
+        for (int u = 0; u < n; u++) {
+            lists[u] = new int[4 + random.nextInt(5)];
+            for (int i = 0; i < lists[u].length; i++) {
+                lists[u][i] = random.nextInt(n);
+            }
+        }
+        for (int c = 0; c < 200; c++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            lists[v] = Arrays.copyOf(lists[u], lists[u].length + 1);
+            lists[v][lists[u].length] = random.nextInt(n);
+        }
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int v : lists[u]) {
+                if (v != u) {
+                    degree[u]++;
+                    degree[v]++;
+                }
+            }
+        }
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            for (int v : lists[u]) {
+                if (v != u) {
+                    targets[fill[u]++] = v;
+                    targets[fill[v]++] = u;
+                }
+            }
+        }
+        int[] compact = new int[n + 1];
+        int kept = 0;
+        for (int v = 0; v < n; v++) {
+            Arrays.sort(targets, offsets[v], offsets[v + 1]);
+            int rowStart = kept;
+            for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                if (kept == rowStart || targets[kept - 1] != targets[a]) {
+                    targets[kept++] = targets[a];
+                }
+            }
+            compact[v + 1] = kept;
+        }
+        targets = Arrays.copyOf(targets, kept);
+        double[] weights = new double[kept];
+        Arrays.fill(weights, 1.0);
+        SparseGraph graph = new SparseGraph(n, compact, targets, weights);
+
+        long start = System.nanoTime();
+        Result exact = topK(graph, Measure.JACCARD, 100, ForkJoinPool.commonPool());
+        System.out.printf("Exact: %d pairs, best %.3f, 100th %.3f, %d scored (%.1f ms)%n", exact.getPairs().length,
+                exact.getScores()[0], exact.getScores()[99], exact.getCandidateCount(),
+                (System.nanoTime() - start) / 1e6);
+        start = System.nanoTime();
+        Result approximate = approximateTopK(graph, Measure.JACCARD, 100, 16, 4, 1, ForkJoinPool.commonPool());
+        System.out.printf("MinHash LSH: %d pairs, best %.3f, 100th %.3f, %d scored (%.1f ms)%n",
+                approximate.getPairs().length, approximate.getScores()[0],
+                approximate.getScores()[approximate.getScores().length - 1], approximate.getCandidateCount(),
+                (System.nanoTime() - start) / 1e6);
+    }
+}
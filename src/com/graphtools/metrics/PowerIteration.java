@@ -0,0 +1,532 @@
+package com.graphtools.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * The power iteration kernel shared by the spectral centralities. It finds
+ * the dominant eigenvector of a linear operator, in practice a sparse
+ * adjacency matrix or a product of two, by repeated matrix-vector products.
+ * <p>
+ * Each iteration costs one operator application plus two parallel passes
+ * over the vector: one for the Rayleigh quotient mu = x.Bx / x.x and one for
+ * the residual ||Bx - mu x|| / (|mu| ||x||), which is the stopping criterion.
+ * The operator may be shifted to B + sI, which leaves the eigenvectors
+ * unchanged but breaks the tie between lambda and -lambda in bipartite
+ * graphs, where the unshifted iteration would oscillate forever.
+ * <p>
+ * Plain power iteration converges like q^k, where q = |lambda_2 / lambda_1|.
+ * Two accelerations are available. Aitken's delta-squared process
+ * extrapolates each component from three consecutive iterates. Chebyshev
+ * acceleration estimates q from the residual decay during a few plain
+ * iterations and then applies the Chebyshev polynomials for [-q lambda_1,
+ * q lambda_1], which converge like (q / (1 + sqrt(1 - q^2)))^k; this assumes
+ * a real spectrum, as for undirected graphs and the HITS operators. Both
+ * fall back to plain iteration as soon as the residual grows.
+ */
+public class PowerIteration {
+
+    /**
+     * Default tolerance on the relative residual.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+
+    /**
+     * Default iteration limit.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+    /**
+     * Number of vector entries a parallel task processes.
+     */
+    private static final int VERTEX_BLOCK = 4096;
+
+    /**
+     * Number of plain iterations before an acceleration starts.
+     */
+    private static final int WARMUP_ITERATIONS = 10;
+
+    /**
+     * Safety factor on the estimated convergence ratio for Chebyshev.
+     */
+    private static final double CHEBYSHEV_MARGIN = 1.02;
+
+    private PowerIteration() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * A linear operator on vectors of a fixed size.
+     */
+    @FunctionalInterface
+    public interface LinearOperator {
+        /**
+         * Computes y = B x. The operator must not modify x.
+         *
+         * @param x The input vector.
+         * @param y The output vector, overwritten.
+         */
+        void apply(double[] x, double[] y);
+    }
+
+    /**
+     * Acceleration schemes for the power iteration.
+     */
+    public enum Acceleration {
+        NONE, AITKEN, CHEBYSHEV
+    }
+
+    /**
+     * The dominant eigenpair found and convergence diagnostics.
+     */
+    public static class Result {
+        private final double[] vector;
+        private final double eigenvalue;
+        private final int iterations;
+        private final double[] residualHistory;
+        private final boolean converged;
+        private final Acceleration acceleration;
+
+        private Result(double[] vector, double eigenvalue, int iterations, double[] residualHistory,
+                boolean converged, Acceleration acceleration) {
+            this.vector = vector;
+            this.eigenvalue = eigenvalue;
+            this.iterations = iterations;
+            this.residualHistory = residualHistory;
+            this.converged = converged;
+            this.acceleration = acceleration;
+        }
+
+        /**
+         * Returns the dominant eigenvector, scaled to unit Euclidean length
+         * with a non-negative sum.
+         *
+         * @return The eigenvector.
+         */
+        public double[] getVector() {
+            return vector;
+        }
+
+        /**
+         * Returns the dominant eigenvalue of the unshifted operator.
+         *
+         * @return The eigenvalue estimate.
+         */
+        public double getEigenvalue() {
+            return eigenvalue;
+        }
+
+        /**
+         * Returns the number of iterations, each one operator application.
+         *
+         * @return The iteration count.
+         */
+        public int getIterations() {
+            return iterations;
+        }
+
+        /**
+         * Returns the relative residual of the returned vector.
+         *
+         * @return The final residual.
+         */
+        public double getResidual() {
+            return residualHistory.length == 0 ? 0.0 : residualHistory[residualHistory.length - 1];
+        }
+
+        /**
+         * Returns the relative residual after every iteration, which shows
+         * the convergence rate and the effect of an acceleration.
+         *
+         * @return The residual history.
+         */
+        public double[] getResidualHistory() {
+            return residualHistory;
+        }
+
+        /**
+         * Returns whether the residual fell below the tolerance within the
+         * iteration limit.
+         *
+         * @return True if the iteration converged.
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+
+        /**
+         * Returns the acceleration in effect when the iteration ended, NONE if
+         * a requested acceleration was abandoned or never started.
+         *
+         * @return The final acceleration.
+         */
+        public Acceleration getAcceleration() {
+            return acceleration;
+        }
+    }
+
+    /**
+     * Returns the operator y = A x of a sparse graph, where (A x)_v sums the
+     * weights of v's outgoing arcs times the values at their heads. Use the
+     * transposed graph for A^T x. Rows are processed in parallel.
+     *
+     * @param graph The sparse graph.
+     * @param pool  The pool running the product.
+     * @return The adjacency operator.
+     */
+    public static LinearOperator adjacency(SparseGraph graph, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+        return (x, y) -> forEachBlock(pool, n, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                double sum = 0.0;
+                for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                    sum += weights[a] * x[targets[a]];
+                }
+                y[v] = sum;
+            }
+        });
+    }
+
+    /**
+     * Returns the product of two operators, y = second(first(x)).
+     *
+     * @param first  The operator applied first.
+     * @param second The operator applied second.
+     * @param size   The size of the intermediate vector.
+     * @return The composed operator.
+     */
+    public static LinearOperator compose(LinearOperator first, LinearOperator second, int size) {
+        double[] middle = new double[size];
+        return (x, y) -> {
+            first.apply(x, middle);
+            second.apply(middle, y);
+        };
+    }
+
+    /**
+     * Finds the dominant eigenvector of an operator with the default
+     * tolerance and iteration limit and without acceleration.
+     *
+     * @param operator The operator.
+     * @param size     The vector size.
+     * @param shift    The shift s; the iteration runs on B + sI.
+     * @param pool     The pool running the vector passes.
+     * @return The eigenpair and diagnostics.
+     */
+    public static Result dominant(LinearOperator operator, int size, double shift, ForkJoinPool pool) {
+        return dominant(operator, size, shift, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, Acceleration.NONE, pool);
+    }
+
+    /**
+     * Finds the dominant eigenvector of an operator, starting from the
+     * uniform vector.
+     *
+     * @param operator      The operator, which should have a unique eigenvalue
+     *                      of largest magnitude after shifting.
+     * @param size          The vector size.
+     * @param shift         The shift s; the iteration runs on B + sI.
+     * @param tolerance     The relative residual at which to stop.
+     * @param maxIterations The iteration limit.
+     * @param acceleration  The acceleration to apply after the warm-up.
+     * @param pool          The pool running the vector passes.
+     * @return The eigenpair and diagnostics.
+     */
+    public static Result dominant(LinearOperator operator, int size, double shift, double tolerance,
+            int maxIterations, Acceleration acceleration, ForkJoinPool pool) {
+        int n = size;
+        if (n == 0) {
+            return new Result(new double[0], 0.0, 0, new double[0], true, Acceleration.NONE);
+        }
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] next = new double[n];
+        double[] previous = new double[n];
+        Arrays.fill(x, 1.0 / Math.sqrt(n));
+
+        double[] history = new double[maxIterations];
+        Acceleration active = Acceleration.NONE;
+        int iterations = 0;
+        boolean converged = false;
+        double mu = 0.0;
+        double startResidual = Double.POSITIVE_INFINITY;
+
+        // Chebyshev state: the interval half-width, sigma = mu / width and
+        // the ratio T(k-1) / T(k) of consecutive polynomial values at sigma
+        double width = 0.0;
+        double sigma = 0.0;
+        double ratio = 0.0;
+
+        while (iterations < maxIterations) {
+            double[] in = x;
+            double[] out = y;
+            operator.apply(in, out);
+            double[] sums = reduce(pool, n, (from, to, partial) -> {
+                for (int v = from; v < to; v++) {
+                    double value = out[v] + shift * in[v];
+                    out[v] = value;
+                    partial[0] += in[v] * value;
+                    partial[1] += in[v] * in[v];
+                    partial[2] += value * value;
+                }
+            });
+            mu = sums[0] / sums[1];
+            double eigen = mu;
+            double residualSquare = reduce(pool, n, (from, to, partial) -> {
+                for (int v = from; v < to; v++) {
+                    double difference = out[v] - eigen * in[v];
+                    partial[0] += difference * difference;
+                }
+            })[0];
+            double residual = Math.sqrt(residualSquare / sums[1]) / Math.abs(mu);
+            history[iterations++] = residual;
+            if (residual <= tolerance || Double.isNaN(residual)) {
+                converged = residual <= tolerance;
+                break;
+            }
+
+            // Abandon an acceleration that makes things worse
+            if (active != Acceleration.NONE && residual > startResidual) {
+                active = Acceleration.NONE;
+            }
+            if (active == Acceleration.NONE && acceleration != Acceleration.NONE
+                    && iterations == WARMUP_ITERATIONS + 1 && history[iterations - 2] > 0) {
+                double q = CHEBYSHEV_MARGIN * residual / history[iterations - 2];
+                if (acceleration == Acceleration.AITKEN || q < 1.0) {
+                    active = acceleration;
+                    startResidual = residual;
+                    width = q * Math.abs(mu);
+                    sigma = 1.0 / q;
+                    ratio = 0.0;
+                }
+            }
+
+            double[] last = previous;
+            double[] target = next;
+            if (active == Acceleration.CHEBYSHEV) {
+                // w(k+1) = 2 tau B w(k) / width - tau rho w(k-1), tau =
+                // 1 / (2 sigma - rho); the first step is B w(0) / mu
+                double first = ratio == 0.0 ? 1.0 / (width * sigma) : 0.0;
+                double tau = ratio == 0.0 ? 0.0 : 1.0 / (2 * sigma - ratio);
+                double rho = ratio;
+                double span = width;
+                double norm = reduce(pool, n, (from, to, partial) -> {
+                    for (int v = from; v < to; v++) {
+                        double value = rho == 0.0 ? first * out[v]
+                                : 2 * tau * out[v] / span - tau * rho * last[v];
+                        target[v] = value;
+                        partial[0] += value * value;
+                    }
+                })[0];
+                ratio = rho == 0.0 ? 1.0 / sigma : tau;
+                if (norm > 1e100 || norm < 1e-100) {
+                    double scale = 1.0 / Math.sqrt(norm);
+                    forEachBlock(pool, n, (from, to) -> {
+                        for (int v = from; v < to; v++) {
+                            target[v] *= scale;
+                            in[v] *= scale;
+                        }
+                    });
+                }
+            } else {
+                double scale = 1.0 / Math.sqrt(sums[2]);
+                forEachBlock(pool, n, (from, to) -> {
+                    for (int v = from; v < to; v++) {
+                        target[v] = out[v] * scale;
+                    }
+                });
+                if (active == Acceleration.AITKEN && iterations % 3 == 0) {
+                    aitken(pool, n, last, in, target);
+                }
+            }
+
+            // Rotate: x(k-1) <- x(k) <- x(k+1)
+            previous = x;
+            x = next;
+            next = last;
+        }
+
+        double[] vector = x;
+        double[] norms = reduce(pool, n, (from, to, partial) -> {
+            for (int v = from; v < to; v++) {
+                partial[0] += vector[v] * vector[v];
+                partial[1] += vector[v];
+            }
+        });
+        double scale = (norms[1] < 0 ? -1.0 : 1.0) / Math.sqrt(norms[0]);
+        for (int v = 0; v < n; v++) {
+            vector[v] *= scale;
+        }
+
+        return new Result(vector, mu - shift, iterations, Arrays.copyOf(history, iterations), converged, active);
+    }
+
+    /**
+     * Bounds the spectral radius of a non-negative operator from above. For
+     * any positive vector x and non-negative matrix B, lambda_max(B) is at
+     * most max_v (B x)_v / x_v (Collatz-Wielandt). Iterating on B + I keeps
+     * the iterates positive even where B x vanishes, and drives the bound
+     * down towards lambda_max(B) + 1.
+     *
+     * @param operator   A non-negative operator.
+     * @param size       The vector size.
+     * @param iterations The number of power iterations.
+     * @param pool       The pool running the vector passes.
+     * @return An upper bound on the spectral radius.
+     */
+    public static double spectralRadiusBound(LinearOperator operator, int size, int iterations,
+            ForkJoinPool pool) {
+        int n = size;
+        if (n == 0) {
+            return 0.0;
+        }
+        double[] x = new double[n];
+        double[] y = new double[n];
+        Arrays.fill(x, 1.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double[] in = x;
+            double[] out = y;
+            operator.apply(in, out);
+            double[] extremes = reduce(pool, n, (from, to, partial) -> {
+                for (int v = from; v < to; v++) {
+                    double value = out[v] + in[v];
+                    out[v] = value;
+                    partial[0] = Math.max(partial[0], value / in[v]);
+                    partial[1] = Math.max(partial[1], value);
+                }
+            }, 2, Math::max);
+            best = Math.min(best, extremes[0] - 1.0);
+
+            // Rescale so the iterates neither overflow nor underflow
+            double scale = 1.0 / extremes[1];
+            forEachBlock(pool, n, (from, to) -> {
+                for (int v = from; v < to; v++) {
+                    out[v] *= scale;
+                }
+            });
+            x = out;
+            y = in;
+        }
+
+        return Math.max(0.0, best);
+    }
+
+    /**
+     * Replaces each component of the newest iterate by its Aitken
+     * extrapolation x2 - (x2 - x1)^2 / (x2 - 2 x1 + x0), where the
+     * denominator is not negligible, and renormalises.
+     */
+    private static void aitken(ForkJoinPool pool, int n, double[] x0, double[] x1, double[] x2) {
+        double norm = reduce(pool, n, (from, to, partial) -> {
+            for (int v = from; v < to; v++) {
+                double step = x2[v] - x1[v];
+                double curvature = step - (x1[v] - x0[v]);
+                if (Math.abs(curvature) > 1e-12 * Math.abs(x2[v])) {
+                    double value = x2[v] - step * step / curvature;
+                    if (value > 0 == x2[v] > 0) {
+                        x2[v] = value;
+                    }
+                }
+                partial[0] += x2[v] * x2[v];
+            }
+        })[0];
+        double scale = 1.0 / Math.sqrt(norm);
+        forEachBlock(pool, n, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                x2[v] *= scale;
+            }
+        });
+    }
+
+    /**
+     * A pass over a block of vector entries.
+     */
+    @FunctionalInterface
+    private interface BlockTask {
+        void run(int from, int to);
+    }
+
+    /**
+     * A pass over a block of vector entries accumulating into partial sums.
+     */
+    @FunctionalInterface
+    private interface BlockReduction {
+        void run(int from, int to, double[] partial);
+    }
+
+    /**
+     * Combines two partial results.
+     */
+    @FunctionalInterface
+    private interface Combiner {
+        double combine(double a, double b);
+    }
+
+    /**
+     * Runs a task on every block of [0, n) in parallel.
+     */
+    private static void forEachBlock(ForkJoinPool pool, int n, BlockTask task) {
+        int blocks = (n + VERTEX_BLOCK - 1) / VERTEX_BLOCK;
+        pool.submit(() -> IntStream.range(0, blocks).parallel()
+                .forEach(block -> task.run(block * VERTEX_BLOCK, Math.min(n, (block + 1) * VERTEX_BLOCK)))).join();
+    }
+
+    /**
+     * Runs a reduction with three summed accumulators on every block of
+     * [0, n) in parallel.
+     */
+    private static double[] reduce(ForkJoinPool pool, int n, BlockReduction reduction) {
+        return reduce(pool, n, reduction, 3, Double::sum);
+    }
+
+    /**
+     * Runs a reduction with the given number of accumulators on every block
+     * of [0, n) in parallel and combines the blocks' accumulators.
+     */
+    private static double[] reduce(ForkJoinPool pool, int n, BlockReduction reduction, int width,
+            Combiner combiner) {
+        int blocks = (n + VERTEX_BLOCK - 1) / VERTEX_BLOCK;
+        double[][] partials = new double[blocks][width];
+        pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(block -> reduction
+                .run(block * VERTEX_BLOCK, Math.min(n, (block + 1) * VERTEX_BLOCK), partials[block]))).join();
+        double[] result = new double[width];
+        for (int b = 0; b < blocks; b++) {
+            for (int i = 0; i < width; i++) {
+                result[i] = b == 0 ? partials[b][i] : combiner.combine(result[i], partials[b][i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Example usage of the PowerIteration class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        double[][] adjacencyMatrix = {
+                { 0, 1, 1, 0 },
+                { 1, 0, 1, 1 },
+                { 1, 1, 0, 0 },
+                { 0, 1, 0, 0 }
+        };
+        SparseGraph graph = SparseGraph.fromMatrix(adjacencyMatrix);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        LinearOperator operator = adjacency(graph, pool);
+
+        for (Acceleration acceleration : Acceleration.values()) {
+            Result result = dominant(operator, 4, 1.0, 1e-12, DEFAULT_MAX_ITERATIONS, acceleration, pool);
+            System.out.printf("%-9s lambda %.10f after %3d iterations: %s%n", acceleration,
+                    result.getEigenvalue(), result.getIterations(), Arrays.toString(result.getVector()));
+        }
+        System.out.println("Spectral radius bound: " + spectralRadiusBound(operator, 4, 30, pool));
+    }
+}
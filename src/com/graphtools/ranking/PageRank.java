@@ -2,7 +2,8 @@ package com.graphtools.ranking;
 
 import java.util.Arrays;
 
-import com.graphtools.metrics.DegreeMeasures;
+import com.graphtools.graph.DegreeProfile;
+import com.graphtools.graph.Graph;
 
 /**
  * This class implements the PageRank algorithm to calculate the importance
@@ -25,6 +26,32 @@ public class PageRank {
      * @return The PageRank scores as a double array.
      */
     public static double[] calculate(double[][] adjacencyMatrix, double dampingFactor, int maxIterations) {
+        return calculate(adjacencyMatrix, DegreeProfile.of(adjacencyMatrix, true).getOutDegrees(), dampingFactor,
+                maxIterations);
+    }
+
+    /**
+     * Calculates the PageRank scores for vertices in a graph, taking the
+     * out-degrees from the graph's cached degree profile.
+     *
+     * @param graph         The graph.
+     * @param dampingFactor The damping factor used in the PageRank calculation.
+     * @param maxIterations The maximum number of iterations for the PageRank
+     *                      calculation.
+     * @return The PageRank scores as a double array.
+     */
+    public static double[] calculate(Graph graph, double dampingFactor, int maxIterations) {
+        return calculate(graph.getAdjacencyMatrix(), graph.getDegreeProfile().getOutDegrees(), dampingFactor,
+                maxIterations);
+    }
+
+    /**
+     * Runs the iteration with precomputed out-degrees. Every vertex pushes
+     * its share along its row, so the matrix is read row by row; each score
+     * still receives its contributions in ascending source order.
+     */
+    private static double[] calculate(double[][] adjacencyMatrix, int[] outDegree, double dampingFactor,
+            int maxIterations) {
         int vertexCount = adjacencyMatrix.length;
         double[] pageRankScores = new double[vertexCount];
 
@@ -35,13 +62,15 @@ public class PageRank {
             double[] newPageRankScores = new double[vertexCount];
             double dampingValue = (1.0 - dampingFactor) / vertexCount;
 
-            for (int i = 0; i < vertexCount; i++) {
-                for (int j = 0; j < vertexCount; j++) {
-                    if (adjacencyMatrix[j][i] > 0) {
-                        newPageRankScores[i] += dampingFactor * pageRankScores[j]
-                                / DegreeMeasures.getVertexOutDegree(adjacencyMatrix, j);
+            for (int j = 0; j < vertexCount; j++) {
+                double[] row = adjacencyMatrix[j];
+                for (int i = 0; i < vertexCount; i++) {
+                    if (row[i] > 0) {
+                        newPageRankScores[i] += dampingFactor * pageRankScores[j] / outDegree[j];
                     }
                 }
+            }
+            for (int i = 0; i < vertexCount; i++) {
                 newPageRankScores[i] += dampingValue;
             }
 
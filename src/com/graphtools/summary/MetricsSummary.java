@@ -1,14 +1,18 @@
 package com.graphtools.summary;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import com.graphtools.graph.Graph;
+import com.graphtools.graph.SparseGraph;
 import com.graphtools.metrics.BasicMeasures;
 import com.graphtools.metrics.CentralityMeasures;
 import com.graphtools.metrics.ConnectivityMeasures;
 import com.graphtools.metrics.DegreeMeasures;
-import com.graphtools.metrics.DistanceMeasures;
-import com.graphtools.utils.MatrixOperations;
+import com.graphtools.metrics.Eccentricities;
+import com.graphtools.metrics.IncrementalMetrics;
+import com.graphtools.metrics.TriangleEstimation;
 
 /**
  * The MetricsSummary class provides methods to calculate various metrics and
@@ -30,9 +34,61 @@ public class MetricsSummary {
      * @return The basic measures of the graph.
      */
     public static String getBasicMeasures(double[][] adjacencyMatrix, boolean shortAnswer) {
-        int vertexCount = BasicMeasures.getVertexCount(adjacencyMatrix);
-        int edgeCount = BasicMeasures.getEdgeCount(adjacencyMatrix);
-        double density = BasicMeasures.calculateDensity(adjacencyMatrix);
+        BasicMeasures.MatrixScan scan = BasicMeasures.scan(adjacencyMatrix, ForkJoinPool.commonPool());
+        int vertexCount = scan.getVertexCount();
+        long edgeCount = scan.getEdgeCount();
+        double density = scan.getDensity();
+
+        if (!shortAnswer) {
+            return String.format("Basic Measures:%n" +
+                    "Vertex Count: %d%n" +
+                    "Edge Count: %d%n" +
+                    "Graph Density: %f%n", vertexCount, edgeCount, density);
+        } else {
+            return String.format("%d, %d, %f%n", vertexCount, edgeCount, density);
+        }
+    }
+
+    /**
+     * Reports the basic measures of a graph in O(1), from the non-zero and
+     * positive counts the graph tracks. The values equal those of
+     * {@link #getBasicMeasures(double[][], boolean)} on its adjacency matrix.
+     *
+     * @param graph       The graph.
+     * @param shortAnswer Flag indicating whether to return a short answer or
+     *                    detailed answer.
+     * @return The basic measures of the graph.
+     */
+    public static String getBasicMeasures(Graph graph, boolean shortAnswer) {
+        int vertexCount = graph.getVertexCount();
+        long edgeCount = BasicMeasures.getEdgeCount(graph);
+        double density = BasicMeasures.calculateDensity(graph);
+
+        if (!shortAnswer) {
+            return String.format("Basic Measures:%n" +
+                    "Vertex Count: %d%n" +
+                    "Edge Count: %d%n" +
+                    "Graph Density: %f%n", vertexCount, edgeCount, density);
+        } else {
+            return String.format("%d, %d, %f%n", vertexCount, edgeCount, density);
+        }
+    }
+
+    /**
+     * Reports the basic measures of a graph tracked by
+     * {@link IncrementalMetrics}, in the same format as
+     * {@link #getBasicMeasures(double[][], boolean)} but without scanning the
+     * matrix.
+     *
+     * @param metrics     The incrementally maintained measures.
+     * @param shortAnswer Flag indicating whether to return a short answer or
+     *                    detailed answer.
+     * @return The basic measures of the graph.
+     */
+    public static String getBasicMeasures(IncrementalMetrics metrics, boolean shortAnswer) {
+        int vertexCount = metrics.getVertexCount();
+        long edgeCount = metrics.getEdgeCount();
+        double density = metrics.getDensity();
 
         if (!shortAnswer) {
             return String.format("Basic Measures:%n" +
@@ -60,10 +116,67 @@ public class MetricsSummary {
                     "Vertex Degrees: %s%n" +
                     "Clustering Coefficient: %f%n", vertexDegrees, clusteringCoefficient);
         } else {
-            return String.format("%s, %d%n", vertexDegrees, clusteringCoefficient);
+            return String.format("%s, %f%n", vertexDegrees, clusteringCoefficient);
         }
     }
 
+    /**
+     * Reports the degree measures of a graph tracked by
+     * {@link IncrementalMetrics}, in the same format as
+     * {@link #getDegreeMeasures(double[][], boolean)}.
+     *
+     * @param metrics     The incrementally maintained measures.
+     * @param shortAnswer Flag indicating whether to return a short answer or
+     *                    detailed answer.
+     * @return The degree measures of the graph.
+     */
+    public static String getDegreeMeasures(IncrementalMetrics metrics, boolean shortAnswer) {
+        String vertexDegrees = Arrays.toString(metrics.getVertexDegrees());
+        double clusteringCoefficient = metrics.getClusteringCoefficient();
+        if (!shortAnswer) {
+            return String.format("Degree Measures:%n" +
+                    "Vertex Degrees: %s%n" +
+                    "Clustering Coefficient: %f%n", vertexDegrees, clusteringCoefficient);
+        } else {
+            return String.format("%s, %f%n", vertexDegrees, clusteringCoefficient);
+        }
+    }
+
+    /**
+     * Reports the triangle and component measures of a graph tracked by
+     * {@link IncrementalMetrics}.
+     *
+     * @param metrics The incrementally maintained measures.
+     * @return The triangle and component measures of the graph.
+     */
+    public static String getComponentMeasures(IncrementalMetrics metrics) {
+        return String.format("Component Measures:%n" +
+                "Triangles: %d%n" +
+                "Transitivity: %f%n" +
+                "Connected Components: %d%n", metrics.getTriangleCount(), metrics.getTransitivity(),
+                metrics.getComponentCount());
+    }
+
+    /**
+     * Estimates the clustering measures of a graph too large for exact
+     * triangle counting, using wedge sampling. The cost depends on the sample
+     * count, not on the number of edges.
+     *
+     * @param graph      An undirected sparse graph, every edge stored as two
+     *                   arcs.
+     * @param samples    The number of wedges to check.
+     * @param confidence The confidence level of the intervals, e.g. 0.95.
+     * @return The estimated clustering measures with confidence intervals.
+     */
+    public static String getClusteringEstimates(SparseGraph graph, int samples, double confidence) {
+        TriangleEstimation.Result estimate = TriangleEstimation.wedgeSampling(graph, samples, confidence,
+                System.nanoTime());
+
+        return String.format("Clustering Estimates (%.0f%% confidence):%n" +
+                "Triangles: %s%n" +
+                "Transitivity: %s%n", confidence * 100, estimate.getTriangles(), estimate.getTransitivity());
+    }
+
     /**
      * Calculates the connectivity measures of the graph.
      *
@@ -71,9 +184,9 @@ public class MetricsSummary {
      * @return The connectivity measures of the graph.
      */
     public static String getDistanceMeasures(double[][] adjacencyMatrix) {
-        double[][] distanceMatrix = DistanceMeasures.getDistanceMatrix(adjacencyMatrix);
-        int graphRadius = DistanceMeasures.getGraphRadius(distanceMatrix);
-        int graphDiameter = DistanceMeasures.getGraphDiameter(distanceMatrix);
+        Eccentricities.Result eccentricities = Eccentricities.compute(adjacencyMatrix, false);
+        int graphRadius = eccentricities.getRadius();
+        int graphDiameter = eccentricities.getDiameter();
 
         return String.format("%s, %s%n", graphRadius, graphDiameter);
     }
@@ -105,11 +218,7 @@ public class MetricsSummary {
         // Calculate the degree centrality
         List<Double> degreeCentralities = CentralityMeasures.getDegreeCentralities(adjacencyMatrix);
         // Calculate the Katz centrality
-        List<Double> katzCentralities = new ArrayList<>();
-        if (MatrixOperations.determinant(adjacencyMatrix) != 0 && MatrixOperations.inverse(adjacencyMatrix) != null) {
-            double alpha = 0.5;
-            katzCentralities = CentralityMeasures.getKatzCentralities(adjacencyMatrix, alpha);
-        }
+        List<Double> katzCentralities = CentralityMeasures.getKatzCentralities(adjacencyMatrix);
 
         // Calculate the PageRank centrality
         double dampingFactor = 0.85;
@@ -136,15 +245,16 @@ public class MetricsSummary {
      */
     public static String getSummaryStatistics(double[][] matrix) {
         // Basic Measures
-        int vertexCount = BasicMeasures.getVertexCount(matrix);
-        int edgeCount = BasicMeasures.getEdgeCount(matrix);
-        double density = BasicMeasures.calculateDensity(matrix);
+        BasicMeasures.MatrixScan scan = BasicMeasures.scan(matrix, ForkJoinPool.commonPool());
+        int vertexCount = scan.getVertexCount();
+        long edgeCount = scan.getEdgeCount();
+        double density = scan.getDensity();
         // Degree Measures
         double clusteringCoefficient = DegreeMeasures.calculateClusteringCoefficient(matrix);
         // Distance Measures
-        double[][] distanceMatrix = DistanceMeasures.getDistanceMatrix(matrix);
-        int graphRadius = DistanceMeasures.getGraphRadius(distanceMatrix);
-        int graphDiameter = DistanceMeasures.getGraphDiameter(distanceMatrix);
+        Eccentricities.Result eccentricities = Eccentricities.compute(matrix, false);
+        int graphRadius = eccentricities.getRadius();
+        int graphDiameter = eccentricities.getDiameter();
         // Connectivity Measures
         int vertexConnectivity = ConnectivityMeasures.getVertexConnectivity(matrix);
         int edgeConnectivity = ConnectivityMeasures.getEdgeConnectivity(matrix);
@@ -184,6 +294,11 @@ public class MetricsSummary {
         String degreeMeasures = MetricsSummary.getDegreeMeasures(adjacencyMatrix, false);
         System.out.println(degreeMeasures);
 
+        // Estimate clustering measures by sampling
+        String clusteringEstimates = MetricsSummary.getClusteringEstimates(
+                SparseGraph.undirectedFromMatrix(adjacencyMatrix), 1000, 0.95);
+        System.out.println(clusteringEstimates);
+
         // Calculate and print distance measures
         String distanceMeasures = MetricsSummary.getDistanceMeasures(adjacencyMatrix);
         System.out.println("Distance Measures:");
@@ -202,6 +317,33 @@ public class MetricsSummary {
         // Calculate and print summary statistics
         String summaryStatistics = MetricsSummary.getSummaryStatistics(adjacencyMatrix);
         System.out.println(summaryStatistics);
+
+        // Keep the measures up to date while the graph changes
+        Graph graph = Graph.fromMatrix(adjacencyMatrix, false);
+        IncrementalMetrics metrics = IncrementalMetrics.attach(graph);
+        graph.setEdge(2, 3, 1.0);
+        System.out.println(MetricsSummary.getBasicMeasures(metrics, false));
+
+        // The matrix, Graph and incremental reports must agree, also for
+        // directed graphs, self loops and negative weights
+        Graph directed = Graph.fromMatrix(new double[][] {
+                { 0, 1, 0 },
+                { 0, 0, 1 },
+                { 1, 0, 0 }
+        }, true);
+        IncrementalMetrics directedMetrics = IncrementalMetrics.attach(directed);
+        directed.setEdge(0, 0, 2.0);
+        directed.setEdge(1, 0, -1.0);
+        Graph[] graphs = { graph, directed };
+        IncrementalMetrics[] tracked = { metrics, directedMetrics };
+        for (int i = 0; i < graphs.length; i++) {
+            String fromMatrix = MetricsSummary.getBasicMeasures(graphs[i].getAdjacencyMatrix(), true);
+            boolean agree = fromMatrix.equals(MetricsSummary.getBasicMeasures(graphs[i], true))
+                    && fromMatrix.equals(MetricsSummary.getBasicMeasures(tracked[i], true));
+            System.out.println("Basic Measures Agree: " + agree + " (" + fromMatrix.trim() + ")");
+        }
+        System.out.println(MetricsSummary.getDegreeMeasures(metrics, false));
+        System.out.println(MetricsSummary.getComponentMeasures(metrics));
     }
 
 }
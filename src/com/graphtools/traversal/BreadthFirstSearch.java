@@ -0,0 +1,84 @@
+package com.graphtools.traversal;
+
+import java.util.Arrays;
+
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * Provides breadth-first search (BFS) traversal algorithms on sparse graphs.
+ */
+public class BreadthFirstSearch {
+
+    private BreadthFirstSearch() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns the hop distance from a source vertex to every vertex.
+     *
+     * @param graph  the sparse graph
+     * @param source the source vertex
+     * @return the hop distances, or -1 for unreachable vertices
+     */
+    public static int[] levels(SparseGraph graph, int source) {
+        int n = graph.getVertexCount();
+        int[] levels = new int[n];
+        levels(graph, source, levels, new int[n]);
+        return levels;
+    }
+
+    /**
+     * Computes hop distances into caller supplied buffers, so repeated runs do
+     * not allocate. On return, queue[0 .. reached) lists the reached vertices
+     * in visiting order.
+     *
+     * @param graph  the sparse graph
+     * @param source the source vertex
+     * @param levels the output array of length n, overwritten (-1 for
+     *               unreachable vertices)
+     * @param queue  a work array of length n
+     * @return the number of vertices reached, including the source
+     */
+    public static int levels(SparseGraph graph, int source, int[] levels, int[] queue) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        Arrays.fill(levels, -1);
+        levels[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+
+        while (head < tail) {
+            int u = queue[head++];
+            int next = levels[u] + 1;
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int v = targets[a];
+                if (levels[v] < 0) {
+                    levels[v] = next;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    /**
+     * Example usage of BreadthFirstSearch class.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        double[][] matrix = {
+                { 0.0, 1.0, 0.0, 1.0, 0.0 },
+                { 1.0, 0.0, 1.0, 0.0, 0.0 },
+                { 0.0, 1.0, 0.0, 0.0, 1.0 },
+                { 1.0, 0.0, 0.0, 0.0, 1.0 },
+                { 0.0, 0.0, 1.0, 1.0, 0.0 }
+        };
+
+        int[] levels = levels(SparseGraph.fromMatrix(matrix), 0);
+        System.out.println("Levels from vertex 0: " + Arrays.toString(levels));
+    }
+}
@@ -0,0 +1,447 @@
+package com.graphtools.traversal;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import com.graphtools.generators.PerfectMatrixGenerator;
+import com.graphtools.generators.RandomAdjacencyMatrixGenerator;
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.utils.MatrixValidator;
+
+/**
+ * Cycle detection, girth and shortest cycles. A symmetric adjacency matrix is
+ * read as an undirected graph, any other as a directed graph; a non-zero
+ * diagonal entry is a cycle of length 1. Cycles are returned as the sequence
+ * of their vertices, the first not repeated at the end.
+ * <p>
+ * Detection is one iterative depth-first search in O(n + m), reporting the
+ * cycle closed by the first back edge. The girth is the smallest over all
+ * vertices s of the shortest cycle found by a breadth-first search from s.
+ * The searches run in parallel and share the best length found so far: a
+ * search stops at the first level that can no longer beat it, and all of
+ * them stop once the smallest possible length is reached.
+ */
+public class CycleDetection {
+
+    private CycleDetection() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether a graph represented by an adjacency matrix has a cycle.
+     *
+     * @param matrix The adjacency matrix representing the graph.
+     * @return True if the graph has a cycle, false otherwise.
+     */
+    public static boolean hasCycle(double[][] matrix) {
+        return findCycle(matrix) != null;
+    }
+
+    /**
+     * Finds a cycle in a graph represented by an adjacency matrix.
+     *
+     * @param matrix The adjacency matrix representing the graph.
+     * @return The vertices of a cycle, or null if the graph is acyclic.
+     */
+    public static int[] findCycle(double[][] matrix) {
+        return findCycle(SparseGraph.fromMatrix(matrix), isDirected(matrix));
+    }
+
+    /**
+     * Finds a cycle with an iterative depth-first search in O(n + m). In a
+     * directed graph a cycle closes at an arc into a vertex still on the
+     * search stack; in an undirected graph at an edge to such a vertex other
+     * than through the tree edge just used.
+     *
+     * @param graph    The sparse graph. An undirected graph stores every edge
+     *                 as two arcs.
+     * @param directed Whether the graph is directed.
+     * @return The vertices of a cycle, or null if the graph is acyclic.
+     */
+    public static int[] findCycle(SparseGraph graph, boolean directed) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        // 0 unvisited, 1 on the stack, 2 finished
+        byte[] state = new byte[n];
+        int[] parent = new int[n];
+        int[] next = new int[n];
+        int[] stack = new int[n];
+
+        for (int s = 0; s < n; s++) {
+            if (state[s] != 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = s;
+            state[s] = 1;
+            parent[s] = -1;
+            next[s] = offsets[s];
+
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (next[u] == offsets[u + 1]) {
+                    state[u] = 2;
+                    top--;
+                    continue;
+                }
+                int a = next[u]++;
+                int w = targets[a];
+                if (state[w] == 0) {
+                    state[w] = 1;
+                    parent[w] = u;
+                    next[w] = offsets[w];
+                    stack[top++] = w;
+                } else if (state[w] == 1 && (directed || w != parent[u] || isRepeated(targets, offsets[u], a))) {
+                    return treePath(parent, w, u);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Computes the girth of a graph represented by an adjacency matrix: the
+     * length of its shortest cycle.
+     *
+     * @param matrix The adjacency matrix representing the graph.
+     * @return The girth, or 0 if the graph is acyclic.
+     */
+    public static int getGirth(double[][] matrix) {
+        int[] cycle = shortestCycle(SparseGraph.fromMatrix(matrix), isDirected(matrix), ForkJoinPool.commonPool());
+        return cycle == null ? 0 : cycle.length;
+    }
+
+    /**
+     * Finds a shortest cycle with a pruned breadth-first search from every
+     * vertex, in parallel. In a directed graph the shortest cycle through s
+     * closes at the first arc back into s. In an undirected graph an edge
+     * (u, w) outside the search tree closes a walk of length
+     * d(u) + d(w) + 1 through s, which is a shortest cycle when s lies on
+     * one, so the minimum over all s is the girth; levels from which no such
+     * edge can beat the best length are never expanded.
+     *
+     * @param graph    The sparse graph. An undirected graph stores every edge
+     *                 as two arcs.
+     * @param directed Whether the graph is directed.
+     * @param pool     The pool running the searches.
+     * @return The vertices of a shortest cycle, or null if the graph is
+     *         acyclic.
+     */
+    public static int[] shortestCycle(SparseGraph graph, boolean directed, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        for (int u = 0; u < n; u++) {
+            if (Arrays.binarySearch(targets, offsets[u], offsets[u + 1], u) >= 0) {
+                return new int[] { u };
+            }
+        }
+        // A cycle through the last vertex of an undirected graph is also
+        // found from an earlier one
+        int sources = directed ? n : n - 1;
+        int smallest = directed ? 2 : 3;
+
+        // Best length in the high and source in the low 32 bits, so the
+        // minimum also picks the smallest source among the shortest cycles
+        AtomicLong best = new AtomicLong(Long.MAX_VALUE);
+        AtomicInteger nextSource = new AtomicInteger();
+        int workers = Math.max(1, Math.min(pool.getParallelism(), sources));
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(worker -> {
+            Search search = new Search(n);
+            int s;
+            while ((s = nextSource.getAndIncrement()) < sources) {
+                long current = best.get();
+                int bound = (int) Math.min(Integer.MAX_VALUE, current >>> 32);
+                if (bound <= smallest) {
+                    return;
+                }
+                int length = directed ? search.directed(offsets, targets, s, bound)
+                        : search.undirected(offsets, targets, s, bound);
+                if (length < bound) {
+                    best.accumulateAndGet(((long) length << 32) | s, Math::min);
+                }
+            }
+        })).join();
+
+        long found = best.get();
+        if (found == Long.MAX_VALUE) {
+            return null;
+        }
+        int length = (int) (found >>> 32);
+        int source = (int) found;
+        Search search = new Search(n);
+        if (directed) {
+            search.directed(offsets, targets, source, length + 1);
+        } else {
+            search.undirected(offsets, targets, source, length + 1);
+        }
+        return search.cycle();
+    }
+
+    /**
+     * Finds a shortest cycle through a vertex of a graph represented by an
+     * adjacency matrix.
+     *
+     * @param matrix The adjacency matrix representing the graph.
+     * @param vertex The vertex.
+     * @return The vertices of the cycle, starting at the given vertex, or null
+     *         if no cycle passes through it.
+     */
+    public static int[] shortestCycleThrough(double[][] matrix, int vertex) {
+        return shortestCycleThrough(SparseGraph.fromMatrix(matrix), isDirected(matrix), vertex);
+    }
+
+    /**
+     * Finds a shortest cycle through a vertex with one breadth-first search.
+     * In an undirected graph every vertex is labelled with the neighbour of
+     * the start vertex its tree path leaves through; an edge between two
+     * differently labelled vertices closes a cycle of length
+     * d(u) + d(w) + 1, and the shortest cycle through the start vertex is the
+     * smallest of these.
+     *
+     * @param graph    The sparse graph. An undirected graph stores every edge
+     *                 as two arcs.
+     * @param directed Whether the graph is directed.
+     * @param vertex   The vertex.
+     * @return The vertices of the cycle, starting at the given vertex, or null
+     *         if no cycle passes through it.
+     */
+    public static int[] shortestCycleThrough(SparseGraph graph, boolean directed, int vertex) {
+        int n = graph.getVertexCount();
+        if (vertex < 0 || vertex >= n) {
+            throw new IllegalArgumentException("Invalid vertex: " + vertex);
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        if (Arrays.binarySearch(targets, offsets[vertex], offsets[vertex + 1], vertex) >= 0) {
+            return new int[] { vertex };
+        }
+        Search search = new Search(n);
+        int length = directed ? search.directed(offsets, targets, vertex, Integer.MAX_VALUE)
+                : search.through(offsets, targets, vertex);
+        return length == Integer.MAX_VALUE ? null : search.cycle();
+    }
+
+    /**
+     * Reusable breadth-first search state. Only the vertices a search reached
+     * are reset before the next one, so a pruned search costs what it
+     * explored.
+     */
+    private static class Search {
+        private final int[] distance;
+        private final int[] parent;
+        private final int[] branch;
+        private final int[] queue;
+        private int reached;
+        private int closeU = -1;
+        private int closeW = -1;
+
+        Search(int n) {
+            distance = new int[n];
+            parent = new int[n];
+            branch = new int[n];
+            queue = new int[n];
+            Arrays.fill(distance, -1);
+        }
+
+        private void start(int source) {
+            for (int i = 0; i < reached; i++) {
+                distance[queue[i]] = -1;
+            }
+            distance[source] = 0;
+            parent[source] = -1;
+            branch[source] = -1;
+            queue[0] = source;
+            reached = 1;
+            closeU = -1;
+            closeW = -1;
+        }
+
+        /**
+         * Returns the length of the shortest directed cycle through the
+         * source if it is below the bound, otherwise Integer.MAX_VALUE.
+         */
+        int directed(int[] offsets, int[] targets, int source, int bound) {
+            start(source);
+            for (int head = 0; head < reached; head++) {
+                int u = queue[head];
+                if (distance[u] + 1 >= bound) {
+                    break;
+                }
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int w = targets[a];
+                    if (w == source) {
+                        closeU = u;
+                        closeW = source;
+                        return distance[u] + 1;
+                    }
+                    if (distance[w] < 0) {
+                        distance[w] = distance[u] + 1;
+                        parent[w] = u;
+                        queue[reached++] = w;
+                    }
+                }
+            }
+            return Integer.MAX_VALUE;
+        }
+
+        /**
+         * Returns the length of the shortest closed walk d(u) + d(w) + 1 over
+         * a non-tree edge if it is below the bound, otherwise
+         * Integer.MAX_VALUE. A vertex u at level d only closes walks of
+         * length 2d + 1 or more that were not already found from the level
+         * above.
+         */
+        int undirected(int[] offsets, int[] targets, int source, int bound) {
+            start(source);
+            int best = bound;
+            for (int head = 0; head < reached; head++) {
+                int u = queue[head];
+                if (2 * distance[u] + 1 >= best) {
+                    break;
+                }
+                boolean parentSeen = false;
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int w = targets[a];
+                    if (distance[w] < 0) {
+                        distance[w] = distance[u] + 1;
+                        parent[w] = u;
+                        queue[reached++] = w;
+                    } else if (w == parent[u] && !parentSeen) {
+                        parentSeen = true;
+                    } else if (distance[u] + distance[w] + 1 < best) {
+                        best = distance[u] + distance[w] + 1;
+                        closeU = u;
+                        closeW = w;
+                    }
+                }
+            }
+            return best < bound ? best : Integer.MAX_VALUE;
+        }
+
+        /**
+         * Returns the length of the shortest undirected cycle through the
+         * source, or Integer.MAX_VALUE if there is none.
+         */
+        int through(int[] offsets, int[] targets, int source) {
+            start(source);
+            int best = Integer.MAX_VALUE;
+            for (int head = 0; head < reached; head++) {
+                int u = queue[head];
+                if (best != Integer.MAX_VALUE && 2 * distance[u] + 1 >= best) {
+                    break;
+                }
+                boolean parentSeen = false;
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int w = targets[a];
+                    if (distance[w] < 0) {
+                        distance[w] = distance[u] + 1;
+                        parent[w] = u;
+                        branch[w] = u == source ? w : branch[u];
+                        queue[reached++] = w;
+                    } else if (w == parent[u] && !parentSeen) {
+                        parentSeen = true;
+                    } else if ((w == source || branch[w] != branch[u]) && distance[u] + distance[w] + 1 < best) {
+                        // A second edge to the source, or one across branches
+                        best = distance[u] + distance[w] + 1;
+                        closeU = u;
+                        closeW = w;
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Returns the cycle closed by the recorded edge (u, w): the tree path
+         * from the source to u, then back from w to the source.
+         */
+        int[] cycle() {
+            int lengthU = distance[closeU] + 1;
+            int lengthW = closeW == queue[0] ? 0 : distance[closeW];
+            int[] cycle = new int[lengthU + lengthW];
+            for (int v = closeU, i = lengthU - 1; v >= 0; v = parent[v], i--) {
+                cycle[i] = v;
+            }
+            for (int v = closeW, i = lengthU; i < cycle.length; v = parent[v], i++) {
+                cycle[i] = v;
+            }
+            return cycle;
+        }
+    }
+
+    /**
+     * Checks whether the target of arc a already occurred earlier in its row,
+     * i.e. whether a is a parallel copy of an edge.
+     */
+    private static boolean isRepeated(int[] targets, int rowStart, int a) {
+        for (int b = rowStart; b < a; b++) {
+            if (targets[b] == targets[a]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the tree path from ancestor to descendant.
+     */
+    private static int[] treePath(int[] parent, int ancestor, int descendant) {
+        int length = 1;
+        for (int v = descendant; v != ancestor; v = parent[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = descendant, i = length - 1; i >= 0; v = parent[v], i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    private static boolean isDirected(double[][] matrix) {
+        return matrix.length > 0 && !MatrixValidator.isSymmetric(matrix);
+    }
+
+    /**
+     * Example usage of the CycleDetection class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        // A 5-cycle 0-1-2-3-4 with a chord 1-3
+        double[][] matrix = {
+                { 0, 1, 0, 0, 1 },
+                { 1, 0, 1, 1, 0 },
+                { 0, 1, 0, 1, 0 },
+                { 0, 1, 1, 0, 1 },
+                { 1, 0, 0, 1, 0 }
+        };
+        System.out.println("Cycle: " + Arrays.toString(findCycle(matrix)));
+        System.out.println("Girth: " + getGirth(matrix));
+        System.out.println("Shortest Cycle Through 0: " + Arrays.toString(shortestCycleThrough(matrix, 0)));
+
+        double[][] tree = {
+                { 0, 1, 1, 0 },
+                { 1, 0, 0, 1 },
+                { 1, 0, 0, 0 },
+                { 0, 1, 0, 0 }
+        };
+        System.out.println("Tree Has Cycle: " + hasCycle(tree));
+
+        double[][] perfect = PerfectMatrixGenerator.generatePerfectAdjacencyMatrix(12, 3, true);
+        System.out.println("Perfect Matrix Girth: " + getGirth(perfect));
+
+        double[][] sparse = RandomAdjacencyMatrixGenerator.generateRandomAdjacencyMatrix(2000, 0.0005, true);
+        long start = System.nanoTime();
+        int[] cycle = shortestCycle(SparseGraph.fromMatrix(sparse), false, ForkJoinPool.commonPool());
+        System.out.printf("Random Matrix Girth: %d (%.1f ms)%n", cycle == null ? 0 : cycle.length,
+                (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -2,6 +2,9 @@ package com.graphtools.traversal;
 
 import java.util.*;
 
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.utils.IndexedMinHeap;
+
 /**
  * This class implements Dijkstra's algorithm to find the shortest path between
  * two vertices in a graph.
@@ -71,6 +74,53 @@ public class Dijkstra {
         return shortestPathArray;
     }
 
+    /**
+     * Calculates the shortest distances from a source vertex to every vertex of
+     * a sparse graph, using an indexed heap so the cost is O(m log n).
+     *
+     * @param graph  the sparse graph, with non-negative arc weights
+     * @param source the source vertex
+     * @return the distances from the source (positive infinity if unreachable)
+     */
+    public static double[] distances(SparseGraph graph, int source) {
+        int n = graph.getVertexCount();
+        double[] distances = new double[n];
+        distances(graph, source, distances, new IndexedMinHeap(n));
+        return distances;
+    }
+
+    /**
+     * Calculates the shortest distances from a source vertex into caller
+     * supplied buffers, so repeated runs do not allocate.
+     *
+     * @param graph     the sparse graph, with non-negative arc weights
+     * @param source    the source vertex
+     * @param distances the output array of length n, overwritten
+     * @param heap      an empty heap with capacity n, left empty on return
+     */
+    public static void distances(SparseGraph graph, int source, double[] distances, IndexedMinHeap heap) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            double du = distances[u];
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int v = targets[a];
+                double candidate = du + weights[a];
+                if (candidate < distances[v]) {
+                    distances[v] = candidate;
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+    }
+
     /**
      * Finds the index of the vertex with the minimum distance from the source
      * vertex among the unvisited vertices.
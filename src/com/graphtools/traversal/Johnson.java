@@ -0,0 +1,211 @@
+package com.graphtools.traversal;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.utils.IndexedMinHeap;
+
+/**
+ * This class implements Johnson's algorithm for all-pairs shortest paths on
+ * sparse graphs. A Bellman-Ford (SPFA) pass computes vertex potentials that
+ * make every arc weight non-negative, and one Dijkstra run per source then
+ * produces each row of the distance matrix in O(m log n). Rows are handed to a
+ * sink as soon as they are ready, so the full n x n result never has to be
+ * held in memory.
+ */
+public class Johnson {
+
+    private Johnson() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Receives the rows of the all-pairs distance matrix. Rows arrive in no
+     * particular order and possibly from several threads at once, so
+     * implementations must be thread-safe. The distances array is reused once
+     * accept returns and must be copied if it is retained.
+     */
+    @FunctionalInterface
+    public interface RowSink {
+
+        /**
+         * Accepts the shortest distances from one source vertex.
+         *
+         * @param source    the source vertex
+         * @param distances the distances from the source (positive infinity if
+         *                  unreachable)
+         */
+        void accept(int source, double[] distances);
+    }
+
+    /**
+     * Computes the Johnson potentials of a graph: the shortest distances from a
+     * virtual vertex joined to every vertex by a zero-weight arc. Uses the
+     * queue-based Bellman-Ford variant (SPFA).
+     *
+     * @param graph the sparse graph, possibly with negative arc weights
+     * @return the potential of every vertex
+     * @throws IllegalArgumentException if the graph contains a negative cycle
+     */
+    public static double[] computePotentials(SparseGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+
+        double[] potentials = new double[n];
+        int[] pathLength = new int[n];
+        boolean[] queued = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int count = n;
+
+        // The virtual source reaches every vertex at distance 0
+        for (int v = 0; v < n; v++) {
+            queue[v] = v;
+            queued[v] = true;
+        }
+
+        while (count > 0) {
+            int u = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            count--;
+            queued[u] = false;
+
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                int v = targets[a];
+                double candidate = potentials[u] + weights[a];
+                if (candidate < potentials[v]) {
+                    potentials[v] = candidate;
+                    pathLength[v] = pathLength[u] + 1;
+                    if (pathLength[v] >= n) {
+                        throw new IllegalArgumentException("The graph contains a negative cycle.");
+                    }
+                    if (!queued[v]) {
+                        queued[v] = true;
+                        queue[(head + count) % n] = v;
+                        count++;
+                    }
+                }
+            }
+        }
+
+        return potentials;
+    }
+
+    /**
+     * Computes all-pairs shortest distances and streams each row to the sink,
+     * running the per-source Dijkstra searches in parallel on the common pool.
+     *
+     * @param graph the sparse graph, possibly with negative arc weights
+     * @param sink  the receiver of the distance rows
+     * @throws IllegalArgumentException if the graph contains a negative cycle
+     */
+    public static void allPairs(SparseGraph graph, RowSink sink) {
+        allPairs(graph, sink, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes all-pairs shortest distances and streams each row to the sink,
+     * running the per-source Dijkstra searches in parallel on the given pool.
+     * Sources are split into chunks and every chunk allocates its buffers
+     * once, so the per-source loop does not allocate.
+     *
+     * @param graph the sparse graph, possibly with negative arc weights
+     * @param sink  the receiver of the distance rows
+     * @param pool  the pool running the searches
+     * @throws IllegalArgumentException if the graph contains a negative cycle
+     */
+    public static void allPairs(SparseGraph graph, RowSink sink, ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        double[] potentials = computePotentials(graph);
+        SparseGraph reweighted = reweight(graph, potentials);
+
+        int chunkCount = Math.max(1, Math.min(n, pool.getParallelism() * 4));
+        pool.submit(() -> IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            double[] row = new double[n];
+            IndexedMinHeap heap = new IndexedMinHeap(n);
+            int from = (int) ((long) n * chunk / chunkCount);
+            int to = (int) ((long) n * (chunk + 1) / chunkCount);
+
+            for (int source = from; source < to; source++) {
+                Dijkstra.distances(reweighted, source, row, heap);
+                double shift = potentials[source];
+                for (int v = 0; v < n; v++) {
+                    if (row[v] != Double.POSITIVE_INFINITY) {
+                        row[v] = row[v] - shift + potentials[v];
+                    }
+                }
+                sink.accept(source, row);
+            }
+        })).join();
+    }
+
+    /**
+     * Computes the full all-pairs distance matrix of a graph. Zero entries are
+     * treated as missing edges and the distance from a vertex to itself is 0.
+     *
+     * @param adjacencyMatrix the adjacency matrix representing the graph
+     * @return the matrix of shortest distances
+     * @throws IllegalArgumentException if the graph contains a negative cycle
+     */
+    public static double[][] allPairs(double[][] adjacencyMatrix) {
+        int n = adjacencyMatrix.length;
+        double[][] distances = new double[n][];
+        allPairs(SparseGraph.fromMatrix(adjacencyMatrix), (source, row) -> distances[source] = row.clone());
+        return distances;
+    }
+
+    /**
+     * Applies the potentials to every arc: w'(u, v) = w(u, v) + h(u) - h(v).
+     * Rounding can leave tiny negative values on zero-reduced-cost arcs, which
+     * are clamped to 0.
+     *
+     * @param graph      the original graph
+     * @param potentials the vertex potentials
+     * @return the reweighted graph, sharing the original structure arrays
+     */
+    private static SparseGraph reweight(SparseGraph graph, double[] potentials) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+        double[] reduced = new double[weights.length];
+
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                reduced[a] = Math.max(0.0, weights[a] + potentials[u] - potentials[targets[a]]);
+            }
+        }
+
+        return new SparseGraph(n, offsets, targets, reduced);
+    }
+
+    /**
+     * Main method to demonstrate the usage of Johnson's algorithm.
+     *
+     * @param args command-line arguments (not used)
+     */
+    public static void main(String[] args) {
+        double[][] adjacencyMatrix = {
+                { 0, 3, 8, 0, -4 },
+                { 0, 0, 0, 1, 7 },
+                { 0, 4, 0, 0, 0 },
+                { 2, 0, -5, 0, 0 },
+                { 0, 0, 0, 6, 0 }
+        };
+
+        double[][] distances = allPairs(adjacencyMatrix);
+        System.out.println("All-Pairs Shortest Distances:");
+        for (double[] row : distances) {
+            System.out.println(Arrays.toString(row));
+        }
+
+        // Stream rows to a callback instead of keeping the whole matrix
+        allPairs(SparseGraph.fromMatrix(adjacencyMatrix),
+                (source, row) -> System.out.println("Row " + source + " max: "
+                        + Arrays.stream(row).max().orElse(0)));
+    }
+}
@@ -0,0 +1,466 @@
+package com.graphtools.traversal;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.utils.DisjointSet;
+import com.graphtools.utils.IndexedMinHeap;
+
+/**
+ * Minimum spanning forest engines on double weights. Every engine treats the
+ * graph as undirected and covers every connected component, returning the
+ * forest as primitive parent and weight arrays.
+ */
+public class MinimumSpanningForest {
+
+    private MinimumSpanningForest() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * A rooted minimum spanning forest. For every vertex v, parent[v] is its
+     * parent in the forest (or -1 for the root of a tree) and weight[v] is the
+     * weight of the edge joining v to its parent (0 for roots).
+     */
+    public static class Forest {
+        private final int[] parent;
+        private final double[] weight;
+
+        public Forest(int[] parent, double[] weight) {
+            this.parent = parent;
+            this.weight = weight;
+        }
+
+        public int[] getParent() {
+            return parent;
+        }
+
+        public double[] getWeight() {
+            return weight;
+        }
+
+        /**
+         * Returns the sum of all edge weights in the forest.
+         *
+         * @return The total weight.
+         */
+        public double getTotalWeight() {
+            double total = 0.0;
+            for (int v = 0; v < parent.length; v++) {
+                if (parent[v] >= 0) {
+                    total += weight[v];
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Returns the number of trees, i.e. the number of connected components.
+         *
+         * @return The tree count.
+         */
+        public int getTreeCount() {
+            int count = 0;
+            for (int p : parent) {
+                if (p < 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Dense O(n^2) Prim's algorithm for complete or nearly complete graphs such
+     * as distance matrices. A zero entry means "no edge"; if matrix[i][j] and
+     * matrix[j][i] differ the smaller non-zero weight is used.
+     *
+     * @param adjacencyMatrix The adjacency matrix representing the graph.
+     * @return The minimum spanning forest.
+     */
+    public static Forest densePrim(double[][] adjacencyMatrix) {
+        int n = adjacencyMatrix.length;
+        int[] parent = new int[n];
+        double[] weight = new double[n];
+        double[] key = new double[n];
+        boolean[] inTree = new boolean[n];
+
+        Arrays.fill(parent, -1);
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+
+        int nextRoot = 0;
+        for (int added = 0; added < n; added++) {
+            // Pick the cheapest vertex on the frontier
+            int u = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int v = 0; v < n; v++) {
+                if (!inTree[v] && key[v] < best) {
+                    best = key[v];
+                    u = v;
+                }
+            }
+
+            // Frontier exhausted: start a new tree at the next unvisited vertex
+            if (u < 0) {
+                while (inTree[nextRoot]) {
+                    nextRoot++;
+                }
+                u = nextRoot;
+            } else {
+                weight[u] = best;
+            }
+            inTree[u] = true;
+
+            double[] row = adjacencyMatrix[u];
+            for (int v = 0; v < n; v++) {
+                if (!inTree[v]) {
+                    double w = SparseGraph.undirectedWeight(row[v], adjacencyMatrix[v][u]);
+                    if (w != 0 && w < key[v]) {
+                        key[v] = w;
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+
+        return new Forest(parent, weight);
+    }
+
+    /**
+     * Prim's algorithm with an indexed binary heap for sparse graphs. Every
+     * vertex is in the heap at most once, and its key is decreased in place,
+     * so the cost is O(m log n).
+     *
+     * @param graph The undirected sparse graph.
+     * @return The minimum spanning forest.
+     */
+    public static Forest heapPrim(SparseGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+
+        int[] parent = new int[n];
+        double[] weight = new double[n];
+        boolean[] inTree = new boolean[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+
+        Arrays.fill(parent, -1);
+
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            heap.insertOrDecrease(root, 0.0);
+
+            while (!heap.isEmpty()) {
+                double key = heap.peekKey();
+                int u = heap.poll();
+                inTree[u] = true;
+                if (u != root) {
+                    weight[u] = key;
+                }
+
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int v = targets[a];
+                    if (!inTree[v] && heap.insertOrDecrease(v, weights[a])) {
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+
+        return new Forest(parent, weight);
+    }
+
+    /**
+     * Kruskal's algorithm: sorts the edges once and joins components with a
+     * union-find structure. Runs in O(m log m).
+     *
+     * @param graph The undirected sparse graph.
+     * @return The minimum spanning forest.
+     */
+    public static Forest kruskal(SparseGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+
+        // Keep one arc per undirected edge
+        int edgeCount = 0;
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                if (u < targets[a]) {
+                    edgeCount++;
+                }
+            }
+        }
+        int[] sources = new int[edgeCount];
+        int[] arcs = new int[edgeCount];
+        int e = 0;
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                if (u < targets[a]) {
+                    sources[e] = u;
+                    arcs[e++] = a;
+                }
+            }
+        }
+
+        int[] order = sortByWeight(arcs, weights);
+        DisjointSet components = new DisjointSet(n);
+        int[] treeU = new int[Math.max(n - 1, 0)];
+        int[] treeV = new int[treeU.length];
+        double[] treeW = new double[treeU.length];
+        int treeEdges = 0;
+
+        for (int i = 0; i < edgeCount && treeEdges < n - 1; i++) {
+            int edge = order[i];
+            int arc = arcs[edge];
+            if (components.union(sources[edge], targets[arc])) {
+                treeU[treeEdges] = sources[edge];
+                treeV[treeEdges] = targets[arc];
+                treeW[treeEdges++] = weights[arc];
+            }
+        }
+
+        return toForest(n, treeU, treeV, treeW, treeEdges);
+    }
+
+    /**
+     * Parallel Boruvka's algorithm. Each round finds, in parallel over the
+     * vertices, the cheapest edge leaving every component and then contracts
+     * along those edges. Ties are broken by endpoint indices so the chosen
+     * edges never form a cycle. At most O(log n) rounds of O(m) work.
+     *
+     * @param graph The undirected sparse graph.
+     * @return The minimum spanning forest.
+     */
+    public static Forest parallelBoruvka(SparseGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+
+        DisjointSet components = new DisjointSet(n);
+        int[] label = new int[n];
+        int[] vertexBest = new int[n];
+        int[] componentBest = new int[n];
+        int[] componentSource = new int[n];
+        int[] selectedComponents = new int[n];
+
+        int[] treeU = new int[Math.max(n - 1, 0)];
+        int[] treeV = new int[treeU.length];
+        double[] treeW = new double[treeU.length];
+        int treeEdges = 0;
+
+        boolean merged = true;
+        while (merged && treeEdges < n - 1) {
+            merged = false;
+            for (int v = 0; v < n; v++) {
+                label[v] = components.find(v);
+            }
+
+            // Cheapest outgoing arc per vertex, computed in parallel
+            IntStream.range(0, n).parallel().forEach(u -> {
+                int best = -1;
+                int own = label[u];
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int v = targets[a];
+                    if (label[v] != own && (best < 0 || lighter(u, a, u, best, targets, weights))) {
+                        best = a;
+                    }
+                }
+                vertexBest[u] = best;
+            });
+
+            // Reduce to the cheapest arc per component
+            Arrays.fill(componentBest, -1);
+            for (int u = 0; u < n; u++) {
+                int a = vertexBest[u];
+                if (a < 0) {
+                    continue;
+                }
+                int c = label[u];
+                int current = componentBest[c];
+                if (current < 0 || lighter(u, a, componentSource[c], current, targets, weights)) {
+                    componentBest[c] = a;
+                    componentSource[c] = u;
+                }
+            }
+
+            // Contract along the selected edges
+            int selected = 0;
+            for (int c = 0; c < n; c++) {
+                if (componentBest[c] >= 0) {
+                    selectedComponents[selected++] = c;
+                }
+            }
+            for (int i = 0; i < selected; i++) {
+                int c = selectedComponents[i];
+                int a = componentBest[c];
+                int u = componentSource[c];
+                if (components.union(u, targets[a])) {
+                    treeU[treeEdges] = u;
+                    treeV[treeEdges] = targets[a];
+                    treeW[treeEdges++] = weights[a];
+                    merged = true;
+                }
+            }
+        }
+
+        return toForest(n, treeU, treeV, treeW, treeEdges);
+    }
+
+    /**
+     * Compares two arcs by weight, breaking ties by their (smaller, larger)
+     * endpoint pair so that every edge has a unique rank.
+     *
+     * @return True if arc a (leaving u) is strictly lighter than arc b (leaving
+     *         v).
+     */
+    private static boolean lighter(int u, int a, int v, int b, int[] targets, double[] weights) {
+        int cmp = Double.compare(weights[a], weights[b]);
+        if (cmp != 0) {
+            return cmp < 0;
+        }
+        int loA = Math.min(u, targets[a]);
+        int loB = Math.min(v, targets[b]);
+        if (loA != loB) {
+            return loA < loB;
+        }
+        return Math.max(u, targets[a]) < Math.max(v, targets[b]);
+    }
+
+    /**
+     * Returns the positions 0 .. arcs.length - 1 ordered by the weight of the
+     * arc they refer to, using a bottom-up merge sort on primitive indices.
+     *
+     * @param arcs    The arcs to order.
+     * @param weights The arc weights.
+     * @return The sorted positions.
+     */
+    private static int[] sortByWeight(int[] arcs, double[] weights) {
+        int size = arcs.length;
+        int[] order = new int[size];
+        int[] buffer = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        for (int width = 1; width < size; width <<= 1) {
+            for (int lo = 0; lo < size - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), size);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    if (weights[arcs[order[j]]] < weights[arcs[order[i]]]) {
+                        buffer[k++] = order[j++];
+                    } else {
+                        buffer[k++] = order[i++];
+                    }
+                }
+                while (i < mid) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < hi) {
+                    buffer[k++] = order[j++];
+                }
+                System.arraycopy(buffer, lo, order, lo, hi - lo);
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Roots an unordered list of tree edges into parent and weight arrays,
+     * using the smallest vertex of each tree as its root.
+     *
+     * @return The rooted forest.
+     */
+    private static Forest toForest(int n, int[] treeU, int[] treeV, double[] treeW, int treeEdges) {
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < treeEdges; e++) {
+            offsets[treeU[e] + 1]++;
+            offsets[treeV[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] adjacent = new int[2 * treeEdges];
+        double[] adjacentWeight = new double[2 * treeEdges];
+        for (int e = 0; e < treeEdges; e++) {
+            adjacent[fill[treeU[e]]] = treeV[e];
+            adjacentWeight[fill[treeU[e]]++] = treeW[e];
+            adjacent[fill[treeV[e]]] = treeU[e];
+            adjacentWeight[fill[treeV[e]]++] = treeW[e];
+        }
+
+        int[] parent = new int[n];
+        double[] weight = new double[n];
+        boolean[] visited = new boolean[n];
+        int[] queue = new int[n];
+        Arrays.fill(parent, -1);
+
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = adjacent[i];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        parent[v] = u;
+                        weight[v] = adjacentWeight[i];
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+
+        return new Forest(parent, weight);
+    }
+
+    /**
+     * Example usage of the MinimumSpanningForest class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        double[][] adjacencyMatrix = {
+                { 0, 2, 0, 6, 0, 0 },
+                { 2, 0, 3, 8, 5, 0 },
+                { 0, 3, 0, 0, 7, 0 },
+                { 6, 8, 0, 0, 9, 0 },
+                { 0, 5, 7, 9, 0, 0 },
+                { 0, 0, 0, 0, 0, 0 }
+        };
+        SparseGraph graph = SparseGraph.undirectedFromMatrix(adjacencyMatrix);
+
+        Forest[] forests = {
+                densePrim(adjacencyMatrix),
+                heapPrim(graph),
+                kruskal(graph),
+                parallelBoruvka(graph)
+        };
+        String[] names = { "Dense Prim", "Heap Prim", "Kruskal", "Boruvka" };
+
+        for (int i = 0; i < forests.length; i++) {
+            System.out.println(names[i] + ": parent=" + Arrays.toString(forests[i].getParent())
+                    + ", weight=" + Arrays.toString(forests[i].getWeight())
+                    + ", total=" + forests[i].getTotalWeight()
+                    + ", trees=" + forests[i].getTreeCount());
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.graphtools.traversal;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * Prim's Minimum Spanning Tree algorithm implementation.
+ *
+ * @see MinimumSpanningForest for the double-weighted engines this class
+ *      delegates to.
  */
 public class PrimMST {
 
@@ -16,7 +18,7 @@ public class PrimMST {
     /**
      * Represents an edge in the graph.
      */
-    private static class Edge {
+    public static class Edge {
         private int source;
         private int destination;
         private int weight;
@@ -26,27 +28,24 @@ public class PrimMST {
             this.destination = destination;
             this.weight = weight;
         }
-    }
 
-    /**
-     * Represents a node in the graph.
-     */
-    private static class Node {
-        private int id;
-        private List<Edge> edges;
+        public int getSource() {
+            return source;
+        }
 
-        public Node(int id) {
-            this.id = id;
-            this.edges = new ArrayList<>();
+        public int getDestination() {
+            return destination;
         }
 
-        public void addEdge(int destination, int weight) {
-            edges.add(new Edge(id, destination, weight));
+        public int getWeight() {
+            return weight;
         }
     }
 
     /**
-     * Finds the Minimum Spanning Tree of a graph using Prim's algorithm.
+     * Finds the Minimum Spanning Tree of a graph using Prim's algorithm. If the
+     * graph is disconnected, the edges of a minimum spanning forest covering
+     * every component are returned.
      *
      * @param adjacencyMatrix The adjacency matrix representing the graph.
      * @return The list of edges in the Minimum Spanning Tree.
@@ -54,64 +53,29 @@ public class PrimMST {
     public static List<Edge> findMST(int[][] adjacencyMatrix) {
         int numNodes = adjacencyMatrix.length;
 
-        // Create nodes
-        Node[] nodes = new Node[numNodes];
-        for (int i = 0; i < numNodes; i++) {
-            nodes[i] = new Node(i);
-        }
-
-        // Populate edges
+        double[][] weights = new double[numNodes][numNodes];
         for (int i = 0; i < numNodes; i++) {
             for (int j = 0; j < numNodes; j++) {
                 if (adjacencyMatrix[i][j] > 0) {
-                    nodes[i].addEdge(j, adjacencyMatrix[i][j]);
-                    nodes[j].addEdge(i, adjacencyMatrix[i][j]);
+                    weights[i][j] = adjacencyMatrix[i][j];
                 }
             }
         }
 
-        // Perform Prim's algorithm
-        List<Edge> mst = new ArrayList<>();
-        boolean[] visited = new boolean[numNodes];
-        PriorityQueue<Edge> minHeap = new PriorityQueue<>((a, b) -> a.weight - b.weight);
-
-        // Start with node 0 as the initial node
-        visited[0] = true;
-        addEdgesToHeap(nodes[0], minHeap, visited);
-
-        while (!minHeap.isEmpty()) {
-            Edge edge = minHeap.poll();
-            int destination = edge.destination;
+        MinimumSpanningForest.Forest forest = MinimumSpanningForest.densePrim(weights);
+        int[] parent = forest.getParent();
+        double[] weight = forest.getWeight();
 
-            if (visited[destination]) {
-                continue; // Skip if the destination node is already visited
+        List<Edge> mst = new ArrayList<>();
+        for (int v = 0; v < numNodes; v++) {
+            if (parent[v] >= 0) {
+                mst.add(new Edge(parent[v], v, (int) weight[v]));
             }
-
-            // Add the edge to the Minimum Spanning Tree
-            mst.add(edge);
-            visited[destination] = true;
-            addEdgesToHeap(nodes[destination], minHeap, visited);
         }
 
         return mst;
     }
 
-    /**
-     * Adds the edges of a node to the priority queue.
-     *
-     * @param node     The node.
-     * @param minHeap  The priority queue.
-     * @param visited  An array to track visited nodes.
-     */
-    private static void addEdgesToHeap(Node node, PriorityQueue<Edge> minHeap, boolean[] visited) {
-        for (Edge edge : node.edges) {
-            int destination = edge.destination;
-            if (!visited[destination]) {
-                minHeap.offer(edge);
-            }
-        }
-    }
-
     public static void main(String[] args) {
         // Example usage
         int[][] adjacencyMatrix = {
@@ -0,0 +1,515 @@
+package com.graphtools.traversal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.graphtools.graph.SparseGraph;
+import com.graphtools.metrics.DistanceMeasures;
+
+/**
+ * Exact distance oracle for unweighted, undirected graphs based on pruned
+ * landmark labeling (a 2-hop cover). Vertices are processed in decreasing
+ * degree order; a breadth-first search from each root is pruned wherever the
+ * labels built so far already certify the distance. The first few roots are
+ * handled with bit-parallel searches that cover a root and up to 64 of its
+ * neighbours at once. A query merges the sorted labels of its two endpoints.
+ * All labels live in flat primitive arrays and can be saved to and loaded
+ * from a memory-mappable file.
+ */
+public class PrunedLandmarkLabeling {
+
+    /**
+     * Default number of bit-parallel roots.
+     */
+    public static final int DEFAULT_BIT_PARALLEL_ROOTS = 16;
+
+    private static final int INFINITE = Integer.MAX_VALUE / 4;
+    private static final int MAGIC = 0x504C4C31;
+
+    private final int vertexCount;
+    private final int bitParallelCount;
+
+    // Bit-parallel labels, vertex-major: entry [v * bitParallelCount + i]
+    private final int[] bpDistances;
+    private final long[] bpSetMinusOne;
+    private final long[] bpSetZero;
+
+    // Normal labels: hubs (as ranks, ascending) and distances of vertex v are
+    // stored in [labelOffsets[v], labelOffsets[v + 1])
+    private final int[] labelOffsets;
+    private final int[] labelHubs;
+    private final int[] labelDistances;
+
+    private PrunedLandmarkLabeling(int vertexCount, int bitParallelCount, int[] bpDistances, long[] bpSetMinusOne,
+            long[] bpSetZero, int[] labelOffsets, int[] labelHubs, int[] labelDistances) {
+        this.vertexCount = vertexCount;
+        this.bitParallelCount = bitParallelCount;
+        this.bpDistances = bpDistances;
+        this.bpSetMinusOne = bpSetMinusOne;
+        this.bpSetZero = bpSetZero;
+        this.labelOffsets = labelOffsets;
+        this.labelHubs = labelHubs;
+        this.labelDistances = labelDistances;
+    }
+
+    /**
+     * Builds the index with the default number of bit-parallel roots.
+     *
+     * @param graph the undirected sparse graph; arc weights are ignored
+     * @return the distance oracle
+     */
+    public static PrunedLandmarkLabeling build(SparseGraph graph) {
+        return build(graph, DEFAULT_BIT_PARALLEL_ROOTS);
+    }
+
+    /**
+     * Builds the index.
+     *
+     * @param graph            the undirected sparse graph; arc weights are
+     *                         ignored
+     * @param bitParallelRoots the number of bit-parallel roots
+     * @return the distance oracle
+     */
+    public static PrunedLandmarkLabeling build(SparseGraph graph, int bitParallelRoots) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        int[] order = degreeOrder(graph);
+
+        int bpCount = Math.max(0, Math.min(bitParallelRoots, n));
+        int bpLength = bitParallelLength(n, bpCount);
+        int[] bpDistances = new int[bpLength];
+        long[] bpMinusOne = new long[bpLength];
+        long[] bpZero = new long[bpLength];
+        boolean[] used = new boolean[n];
+        int[] queue = new int[n];
+        int[] distance = new int[n];
+        long[] setMinusOne = new long[n];
+        long[] setZero = new long[n];
+        int[] siblings = new int[2 * targets.length];
+        int[] children = new int[2 * targets.length];
+
+        // Bit-parallel searches from the highest-degree unused roots
+        int nextRoot = 0;
+        for (int i = 0; i < bpCount; i++) {
+            while (nextRoot < n && used[order[nextRoot]]) {
+                nextRoot++;
+            }
+            Arrays.fill(distance, INFINITE);
+            if (nextRoot == n) {
+                for (int v = 0; v < n; v++) {
+                    bpDistances[v * bpCount + i] = INFINITE;
+                }
+                continue;
+            }
+            Arrays.fill(setMinusOne, 0L);
+            Arrays.fill(setZero, 0L);
+
+            int root = order[nextRoot];
+            used[root] = true;
+            distance[root] = 0;
+            queue[0] = root;
+            int tail = 1;
+
+            int selected = 0;
+            for (int a = offsets[root]; a < offsets[root + 1] && selected < 64; a++) {
+                int v = targets[a];
+                if (!used[v] && v != root) {
+                    used[v] = true;
+                    queue[tail++] = v;
+                    distance[v] = 1;
+                    setMinusOne[v] = 1L << selected++;
+                }
+            }
+
+            int head = 0;
+            int levelEnd = 1;
+            while (head < levelEnd) {
+                int siblingCount = 0;
+                int childCount = 0;
+                for (int q = head; q < levelEnd; q++) {
+                    int v = queue[q];
+                    for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                        int w = targets[a];
+                        if (distance[w] == distance[v]) {
+                            if (v < w) {
+                                siblings[siblingCount++] = v;
+                                siblings[siblingCount++] = w;
+                            }
+                        } else if (distance[v] < distance[w]) {
+                            if (distance[w] == INFINITE) {
+                                distance[w] = distance[v] + 1;
+                                queue[tail++] = w;
+                            }
+                            children[childCount++] = v;
+                            children[childCount++] = w;
+                        }
+                    }
+                }
+                for (int s = 0; s < siblingCount; s += 2) {
+                    int v = siblings[s];
+                    int w = siblings[s + 1];
+                    setZero[v] |= setMinusOne[w];
+                    setZero[w] |= setMinusOne[v];
+                }
+                for (int c = 0; c < childCount; c += 2) {
+                    int v = children[c];
+                    int w = children[c + 1];
+                    setMinusOne[w] |= setMinusOne[v];
+                    setZero[w] |= setZero[v];
+                }
+                head = levelEnd;
+                levelEnd = tail;
+            }
+
+            for (int v = 0; v < n; v++) {
+                int index = v * bpCount + i;
+                bpDistances[index] = distance[v];
+                bpMinusOne[index] = setMinusOne[v];
+                bpZero[index] = setZero[v] & ~setMinusOne[v];
+            }
+        }
+
+        PrunedLandmarkLabeling partial = new PrunedLandmarkLabeling(n, bpCount, bpDistances, bpMinusOne, bpZero,
+                null, null, null);
+
+        // Pruned searches; labels grow per vertex and are flattened afterwards
+        int[][] hubs = new int[n][];
+        int[][] dists = new int[n][];
+        int[] sizes = new int[n];
+        int[] rootDistance = new int[n + 1];
+        Arrays.fill(rootDistance, INFINITE);
+        Arrays.fill(distance, INFINITE);
+
+        for (int r = 0; r < n; r++) {
+            int root = order[r];
+            if (used[root]) {
+                continue;
+            }
+            for (int l = 0; l < sizes[root]; l++) {
+                rootDistance[hubs[root][l]] = dists[root][l];
+            }
+
+            queue[0] = root;
+            distance[root] = 0;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int v = queue[head++];
+                int d = distance[v];
+
+                if (used[v] || partial.bitParallelBound(root, v, d) <= d) {
+                    continue;
+                }
+                boolean pruned = false;
+                for (int l = 0; l < sizes[v]; l++) {
+                    if (rootDistance[hubs[v][l]] + dists[v][l] <= d) {
+                        pruned = true;
+                        break;
+                    }
+                }
+                if (pruned) {
+                    continue;
+                }
+
+                if (hubs[v] == null) {
+                    hubs[v] = new int[4];
+                    dists[v] = new int[4];
+                } else if (sizes[v] == hubs[v].length) {
+                    hubs[v] = Arrays.copyOf(hubs[v], sizes[v] * 2);
+                    dists[v] = Arrays.copyOf(dists[v], sizes[v] * 2);
+                }
+                hubs[v][sizes[v]] = r;
+                dists[v][sizes[v]++] = d;
+
+                for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+                    int w = targets[a];
+                    if (distance[w] == INFINITE) {
+                        distance[w] = d + 1;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+
+            for (int q = 0; q < tail; q++) {
+                distance[queue[q]] = INFINITE;
+            }
+            for (int l = 0; l < sizes[root]; l++) {
+                rootDistance[hubs[root][l]] = INFINITE;
+            }
+            used[root] = true;
+        }
+
+        int[] labelOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            labelOffsets[v + 1] = labelOffsets[v] + sizes[v];
+        }
+        int[] labelHubs = new int[labelOffsets[n]];
+        int[] labelDistances = new int[labelOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            if (sizes[v] > 0) {
+                System.arraycopy(hubs[v], 0, labelHubs, labelOffsets[v], sizes[v]);
+                System.arraycopy(dists[v], 0, labelDistances, labelOffsets[v], sizes[v]);
+            }
+        }
+
+        return new PrunedLandmarkLabeling(n, bpCount, bpDistances, bpMinusOne, bpZero, labelOffsets, labelHubs,
+                labelDistances);
+    }
+
+    /**
+     * Returns the exact hop distance between two vertices.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return the distance, or -1 if the vertices are disconnected
+     */
+    public int query(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        int best = bitParallelBound(source, target, INFINITE);
+
+        int i = labelOffsets[source];
+        int iEnd = labelOffsets[source + 1];
+        int j = labelOffsets[target];
+        int jEnd = labelOffsets[target + 1];
+        while (i < iEnd && j < jEnd) {
+            int hubI = labelHubs[i];
+            int hubJ = labelHubs[j];
+            if (hubI == hubJ) {
+                int d = labelDistances[i++] + labelDistances[j++];
+                if (d < best) {
+                    best = d;
+                }
+            } else if (hubI < hubJ) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return best >= INFINITE ? -1 : best;
+    }
+
+    /**
+     * Returns the best upper bound on the distance given by the bit-parallel
+     * labels, or INFINITE if they give none.
+     *
+     * @param s     the first vertex
+     * @param t     the second vertex
+     * @param limit only bounds up to this value need to be exact
+     * @return the bound
+     */
+    private int bitParallelBound(int s, int t, int limit) {
+        int best = INFINITE;
+        int baseS = s * bitParallelCount;
+        int baseT = t * bitParallelCount;
+        for (int i = 0; i < bitParallelCount; i++) {
+            int d = bpDistances[baseS + i] + bpDistances[baseT + i];
+            if (d - 2 <= best && d - 2 <= limit && d < INFINITE) {
+                long minusS = bpSetMinusOne[baseS + i];
+                long minusT = bpSetMinusOne[baseT + i];
+                if ((minusS & minusT) != 0) {
+                    d -= 2;
+                } else if (((minusS & bpSetZero[baseT + i]) | (bpSetZero[baseS + i] & minusT)) != 0) {
+                    d -= 1;
+                }
+                if (d < best) {
+                    best = d;
+                }
+            }
+        }
+        return best;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the average number of normal label entries per vertex.
+     *
+     * @return the average label size
+     */
+    public double getAverageLabelSize() {
+        return vertexCount == 0 ? 0.0 : (double) labelHubs.length / vertexCount;
+    }
+
+    /**
+     * Saves the index as raw little-endian arrays that can be memory-mapped.
+     *
+     * @param filePath the path of the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filePath) throws IOException {
+        long bpEntries = (long) vertexCount * bitParallelCount;
+        long size = 4L * Integer.BYTES + bpEntries * (Integer.BYTES + 2L * Long.BYTES)
+                + (vertexCount + 1L) * Integer.BYTES + 2L * labelHubs.length * Integer.BYTES;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(vertexCount).putInt(bitParallelCount).putInt(labelHubs.length);
+            buffer.asIntBuffer().put(bpDistances);
+            buffer.position(buffer.position() + bpDistances.length * Integer.BYTES);
+            buffer.asLongBuffer().put(bpSetMinusOne);
+            buffer.position(buffer.position() + bpSetMinusOne.length * Long.BYTES);
+            buffer.asLongBuffer().put(bpSetZero);
+            buffer.position(buffer.position() + bpSetZero.length * Long.BYTES);
+            buffer.asIntBuffer().put(labelOffsets);
+            buffer.position(buffer.position() + labelOffsets.length * Integer.BYTES);
+            buffer.asIntBuffer().put(labelHubs);
+            buffer.position(buffer.position() + labelHubs.length * Integer.BYTES);
+            buffer.asIntBuffer().put(labelDistances);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Returns the length of the bit-parallel label arrays, one entry per
+     * vertex and root, failing clearly where an int product would overflow.
+     */
+    private static int bitParallelLength(int n, int bpCount) {
+        try {
+            return Math.multiplyExact(n, bpCount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many bit-parallel labels: " + n + " vertices times " + bpCount
+                    + " roots exceeds the maximum array length; use fewer bit-parallel roots.", e);
+        }
+    }
+
+    /**
+     * Loads an index written by {@link #save} by memory-mapping the file and
+     * bulk-copying its arrays.
+     *
+     * @param filePath the path of the file to read
+     * @return the distance oracle
+     * @throws IOException if the file cannot be read or is not an index
+     */
+    public static PrunedLandmarkLabeling load(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a pruned landmark labeling index: " + filePath);
+            }
+            int n = buffer.getInt();
+            int bpCount = buffer.getInt();
+            int labelCount = buffer.getInt();
+
+            int bpLength = bitParallelLength(n, bpCount);
+            int[] bpDistances = new int[bpLength];
+            long[] bpMinusOne = new long[bpLength];
+            long[] bpZero = new long[bpLength];
+            int[] labelOffsets = new int[n + 1];
+            int[] labelHubs = new int[labelCount];
+            int[] labelDistances = new int[labelCount];
+
+            buffer.asIntBuffer().get(bpDistances);
+            buffer.position(buffer.position() + bpDistances.length * Integer.BYTES);
+            buffer.asLongBuffer().get(bpMinusOne);
+            buffer.position(buffer.position() + bpMinusOne.length * Long.BYTES);
+            buffer.asLongBuffer().get(bpZero);
+            buffer.position(buffer.position() + bpZero.length * Long.BYTES);
+            buffer.asIntBuffer().get(labelOffsets);
+            buffer.position(buffer.position() + labelOffsets.length * Integer.BYTES);
+            buffer.asIntBuffer().get(labelHubs);
+            buffer.position(buffer.position() + labelHubs.length * Integer.BYTES);
+            buffer.asIntBuffer().get(labelDistances);
+
+            return new PrunedLandmarkLabeling(n, bpCount, bpDistances, bpMinusOne, bpZero, labelOffsets, labelHubs,
+                    labelDistances);
+        }
+    }
+
+    /**
+     * Orders the vertices by decreasing degree, breaking ties by index, using
+     * a counting sort.
+     *
+     * @param graph the sparse graph
+     * @return the vertex order
+     */
+    private static int[] degreeOrder(SparseGraph graph) {
+        int n = graph.getVertexCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, graph.getDegree(v));
+        }
+        int[] start = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            start[maxDegree - graph.getDegree(v) + 1]++;
+        }
+        for (int d = 1; d < start.length; d++) {
+            start[d] += start[d - 1];
+        }
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[start[maxDegree - graph.getDegree(v)]++] = v;
+        }
+        return order;
+    }
+
+    /**
+     * Example usage, comparing query times against repeated
+     * {@link DistanceMeasures#getShortestPath} calls.
+     *
+     * @param args command-line arguments (not used)
+     */
+    public static void main(String[] args) {
+        int n = 2000;
+        double[][] adjacencyMatrix = new double[n][n];
+        Random random = new Random(7);
+        // Preferential-attachment style graph: a few hubs, many low-degree vertices
+        for (int v = 1; v < n; v++) {
+            for (int e = 0; e < 3; e++) {
+                int u = random.nextInt(v);
+                if (random.nextBoolean()) {
+                    u = random.nextInt(Math.max(1, v / 10));
+                }
+                adjacencyMatrix[u][v] = 1.0;
+                adjacencyMatrix[v][u] = 1.0;
+            }
+        }
+
+        long start = System.nanoTime();
+        PrunedLandmarkLabeling index = build(SparseGraph.fromMatrix(adjacencyMatrix));
+        System.out.printf("Index built in %.1f ms, average label size %.1f%n", (System.nanoTime() - start) / 1e6,
+                index.getAverageLabelSize());
+
+        int queries = 200;
+        int[] sources = new int[queries];
+        int[] targets = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            sources[q] = random.nextInt(n);
+            targets[q] = random.nextInt(n);
+        }
+
+        start = System.nanoTime();
+        long checksum = 0;
+        for (int q = 0; q < queries; q++) {
+            checksum += index.query(sources[q], targets[q]);
+        }
+        long labelTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long expected = 0;
+        for (int q = 0; q < queries; q++) {
+            List<Integer> path = DistanceMeasures.getShortestPath(adjacencyMatrix, sources[q], targets[q]);
+            expected += sources[q] == targets[q] ? 0 : path.size() - 1;
+        }
+        long bfsTime = System.nanoTime() - start;
+
+        System.out.printf("Labeling: %.2f us/query, BFS: %.2f us/query, results agree: %b%n",
+                labelTime / 1e3 / queries, bfsTime / 1e3 / queries, checksum == expected);
+    }
+}
@@ -0,0 +1,301 @@
+package com.graphtools.traversal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.graphtools.graph.Graph;
+import com.graphtools.graph.SparseGraph;
+
+/**
+ * A bounded, concurrent cache of single-source shortest distance vectors.
+ * Entries are keyed by (graph version, source vertex), so a mutation of the
+ * graph makes every cached vector stale; stale entries are dropped on the
+ * first lookup after the change. The cache is split into lock-striped
+ * segments, each evicting its least recently used vectors once its share of
+ * the byte budget is exceeded. Distances are computed outside the segment
+ * locks, with breadth-first search for unweighted graphs and Dijkstra's
+ * algorithm otherwise.
+ */
+public class ShortestPathCache {
+
+    /**
+     * Approximate per-entry overhead in bytes: map node, boxed key, entry
+     * object and array header.
+     */
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private final Graph graph;
+    private final Segment[] segments;
+    private final long maxBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile long cachedVersion;
+
+    /**
+     * A cached distance vector and the graph version it was computed for.
+     */
+    private static class Entry {
+        private final long version;
+        private final double[] distances;
+
+        private Entry(long version, double[] distances) {
+            this.version = version;
+            this.distances = distances;
+        }
+    }
+
+    /**
+     * One lock stripe: an access-ordered map with its own byte budget.
+     */
+    private static class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long capacityBytes;
+        private long usedBytes;
+
+        private Segment(long capacityBytes) {
+            this.capacityBytes = capacityBytes;
+        }
+    }
+
+    /**
+     * Creates a cache for a graph with 16 segments.
+     *
+     * @param graph    The graph whose distances are cached. Arc weights must be
+     *                 non-negative.
+     * @param maxBytes The approximate memory budget for cached vectors.
+     */
+    public ShortestPathCache(Graph graph, long maxBytes) {
+        this(graph, maxBytes, 16);
+    }
+
+    /**
+     * Creates a cache for a graph.
+     *
+     * @param graph        The graph whose distances are cached. Arc weights
+     *                     must be non-negative.
+     * @param maxBytes     The approximate memory budget for cached vectors.
+     * @param segmentCount The number of lock stripes (rounded up to a power of
+     *                     two).
+     */
+    public ShortestPathCache(Graph graph, long maxBytes, int segmentCount) {
+        if (maxBytes <= 0 || segmentCount <= 0) {
+            throw new IllegalArgumentException("Budget and segment count must be positive.");
+        }
+        int count = Integer.highestOneBit(segmentCount);
+        if (count < segmentCount) {
+            count <<= 1;
+        }
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maxBytes / count);
+        }
+        this.cachedVersion = graph.getVersion();
+    }
+
+    /**
+     * Returns the shortest distances from a source vertex, computing and
+     * caching them on a miss. The returned array is shared with the cache and
+     * must not be modified.
+     *
+     * @param source The source vertex.
+     * @return The distances from the source (positive infinity if unreachable).
+     */
+    public double[] getDistances(int source) {
+        long version = graph.getVersion();
+        if (version != cachedVersion) {
+            invalidate();
+            cachedVersion = version;
+        }
+
+        Long key = key(version, source);
+        Segment segment = segmentFor(source);
+
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return entry.distances;
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        misses.increment();
+        double[] distances = compute(source);
+        long size = sizeOf(distances);
+
+        // Only store vectors computed against a still-current graph
+        if (size <= segment.capacityBytes && graph.getVersion() == version) {
+            segment.lock.lock();
+            try {
+                if (segment.entries.put(key, new Entry(version, distances)) == null) {
+                    segment.usedBytes += size;
+                }
+                evict(segment);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return distances;
+    }
+
+    /**
+     * Returns the shortest distance between two vertices.
+     *
+     * @param source The source vertex.
+     * @param target The target vertex.
+     * @return The distance (positive infinity if unreachable).
+     */
+    public double getDistance(int source, int target) {
+        return getDistances(source)[target];
+    }
+
+    /**
+     * Drops every cached vector.
+     */
+    public void invalidate() {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.clear();
+                segment.usedBytes = 0;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups answered from the cache.
+     *
+     * @return The hit rate, or 0 if there were no lookups.
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Returns the approximate number of bytes currently held.
+     *
+     * @return The used bytes.
+     */
+    public long getUsedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                used += segment.usedBytes;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return used;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Evicts least recently used entries, and any stale ones, until the
+     * segment is within its budget. Must be called with the segment locked.
+     *
+     * @param segment The segment.
+     */
+    private void evict(Segment segment) {
+        long version = graph.getVersion();
+        Iterator<Map.Entry<Long, Entry>> iterator = segment.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (segment.usedBytes <= segment.capacityBytes && entry.version == version) {
+                break;
+            }
+            iterator.remove();
+            segment.usedBytes -= sizeOf(entry.distances);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Computes the single-source distances on the current graph.
+     *
+     * @param source The source vertex.
+     * @return The distances.
+     */
+    private double[] compute(int source) {
+        SparseGraph sparse = graph.toSparseGraph();
+        if (!sparse.isUnweighted()) {
+            return Dijkstra.distances(sparse, source);
+        }
+
+        int[] levels = BreadthFirstSearch.levels(sparse, source);
+        double[] distances = new double[levels.length];
+        for (int v = 0; v < levels.length; v++) {
+            distances[v] = levels[v] < 0 ? Double.POSITIVE_INFINITY : levels[v];
+        }
+        return distances;
+    }
+
+    private Segment segmentFor(int source) {
+        int hash = source * 0x9E3779B9;
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static Long key(long version, int source) {
+        return (version << 32) ^ (source & 0xFFFFFFFFL);
+    }
+
+    private static long sizeOf(double[] distances) {
+        return ENTRY_OVERHEAD + (long) distances.length * Double.BYTES;
+    }
+
+    /**
+     * Example usage of the ShortestPathCache class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        double[][] adjacencyMatrix = {
+                { 0, 1, 3, 0, 0 },
+                { 1, 0, 1, 4, 0 },
+                { 3, 1, 0, 1, 2 },
+                { 0, 4, 1, 0, 2 },
+                { 0, 0, 2, 2, 0 }
+        };
+        Graph graph = Graph.fromMatrix(adjacencyMatrix, false);
+        ShortestPathCache cache = new ShortestPathCache(graph, 1 << 20);
+
+        System.out.println("Distance 0 -> 4: " + cache.getDistance(0, 4));
+        System.out.println("Distance 0 -> 3: " + cache.getDistance(0, 3));
+
+        graph.setEdge(0, 4, 1.0);
+        System.out.println("Distance 0 -> 4 after update: " + cache.getDistance(0, 4));
+
+        System.out.println("Hits: " + cache.getHitCount() + ", Misses: " + cache.getMissCount());
+    }
+}
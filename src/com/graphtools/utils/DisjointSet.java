@@ -0,0 +1,110 @@
+package com.graphtools.utils;
+
+/**
+ * A union-find structure over the integers 0 .. size - 1 using union by rank
+ * and path halving.
+ */
+public class DisjointSet {
+
+    private final int[] parents;
+    private final byte[] ranks;
+    private int setCount;
+
+    /**
+     * Creates a disjoint set where every element is in its own set.
+     *
+     * @param size The number of elements.
+     */
+    public DisjointSet(int size) {
+        this.parents = new int[size];
+        this.ranks = new byte[size];
+        this.setCount = size;
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+        }
+    }
+
+    /**
+     * Finds the representative of the set containing an element.
+     *
+     * @param element The element.
+     * @return The representative of its set.
+     */
+    public int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets containing two elements.
+     *
+     * @param a The first element.
+     * @param b The second element.
+     * @return True if the sets were distinct and have been merged, false
+     *         otherwise.
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (ranks[rootA] < ranks[rootB]) {
+            parents[rootA] = rootB;
+        } else if (ranks[rootA] > ranks[rootB]) {
+            parents[rootB] = rootA;
+        } else {
+            parents[rootB] = rootA;
+            ranks[rootA]++;
+        }
+        setCount--;
+        return true;
+    }
+
+    /**
+     * Checks whether two elements are in the same set.
+     *
+     * @param a The first element.
+     * @param b The second element.
+     * @return True if both elements share a set, false otherwise.
+     */
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * Returns the number of disjoint sets.
+     *
+     * @return The set count.
+     */
+    public int getSetCount() {
+        return setCount;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return The element count.
+     */
+    public int size() {
+        return parents.length;
+    }
+
+    /**
+     * Example usage of the DisjointSet class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        DisjointSet set = new DisjointSet(5);
+        set.union(0, 1);
+        set.union(3, 4);
+
+        System.out.println("0 and 1 connected: " + set.connected(0, 1));
+        System.out.println("1 and 3 connected: " + set.connected(1, 3));
+        System.out.println("Number of sets: " + set.getSetCount());
+    }
+}
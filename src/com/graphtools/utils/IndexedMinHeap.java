@@ -0,0 +1,205 @@
+package com.graphtools.utils;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap over the integer items 0 .. capacity - 1 keyed by
+ * primitive doubles. Every item knows its position in the heap, so keys can
+ * be decreased in place instead of inserting duplicate entries.
+ */
+public class IndexedMinHeap {
+
+    private final int[] heap;
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Creates an empty heap able to hold the items 0 .. capacity - 1.
+     *
+     * @param capacity The number of distinct items.
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Returns the number of items in the heap.
+     *
+     * @return The heap size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the heap is empty.
+     *
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether an item is currently in the heap.
+     *
+     * @param item The item.
+     * @return True if the item is in the heap, false otherwise.
+     */
+    public boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+
+    /**
+     * Returns the current key of an item in the heap.
+     *
+     * @param item The item.
+     * @return The key of the item.
+     */
+    public double getKey(int item) {
+        return keys[item];
+    }
+
+    /**
+     * Inserts an item, or lowers its key if it is already in the heap and the
+     * new key is smaller.
+     *
+     * @param item The item.
+     * @param key  The key.
+     * @return True if the heap changed, false otherwise.
+     */
+    public boolean insertOrDecrease(int item, double key) {
+        int position = positions[item];
+        if (position < 0) {
+            keys[item] = key;
+            heap[size] = item;
+            positions[item] = size;
+            siftUp(size++);
+            return true;
+        }
+        if (key < keys[item]) {
+            keys[item] = key;
+            siftUp(position);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the item with the smallest key without removing it.
+     *
+     * @return The item with the smallest key.
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Returns the smallest key in the heap.
+     *
+     * @return The smallest key.
+     */
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the item with the smallest key.
+     *
+     * @return The item with the smallest key.
+     */
+    public int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every item from the heap in O(size) time, so the heap can be
+     * reused without reallocating.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the entry at the given position up until the heap order holds.
+     *
+     * @param position The heap position.
+     */
+    private void siftUp(int position) {
+        int item = heap[position];
+        double key = keys[item];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentItem = heap[parent];
+            if (keys[parentItem] <= key) {
+                break;
+            }
+            heap[position] = parentItem;
+            positions[parentItem] = position;
+            position = parent;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+
+    /**
+     * Moves the entry at the given position down until the heap order holds.
+     *
+     * @param position The heap position.
+     */
+    private void siftDown(int position) {
+        int item = heap[position];
+        double key = keys[item];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childItem = heap[child];
+            if (key <= keys[childItem]) {
+                break;
+            }
+            heap[position] = childItem;
+            positions[childItem] = position;
+            position = child;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+
+    /**
+     * Example usage of the IndexedMinHeap class.
+     *
+     * @param args The command-line arguments (ignored).
+     */
+    public static void main(String[] args) {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.insertOrDecrease(0, 4.0);
+        heap.insertOrDecrease(1, 2.5);
+        heap.insertOrDecrease(2, 7.0);
+        heap.insertOrDecrease(2, 1.0);
+
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            System.out.println("Item " + heap.poll() + " with key " + key);
+        }
+    }
+}
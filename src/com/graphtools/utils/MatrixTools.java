@@ -1,6 +1,7 @@
 package com.graphtools.utils;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * MatrixTools
@@ -54,63 +55,17 @@ public class MatrixTools {
 
     /**
      * Calculates the shortest distances between all pairs of vertices using the
-     * Floyd-Warshall algorithm.
+     * Floyd-Warshall algorithm. Zero entries are treated as missing edges, so the
+     * diagonal holds the length of the shortest cycle through each vertex.
      *
      * @param matrix The adjacency matrix representing the graph.
      * @return The matrix of shortest distances.
+     * @see BlockedFloydWarshall for the tiled, parallel implementation and
+     *      path reconstruction.
      */
     public static double[][] getFloydWarshallDistances(double[][] matrix) {
-        int size = matrix.length;
-        double[][] distances = initializeDistances(matrix);
-        applyFloydWarshallAlgorithm(distances, size);
-        return distances;
-    }
-
-    /**
-     * Initializes the distances matrix with appropriate initial values.
-     *
-     * @param matrix The adjacency matrix representing the graph.
-     * @return The initialized distances matrix.
-     */
-    private static double[][] initializeDistances(double[][] matrix) {
-        int size = matrix.length;
-        double[][] distances = new double[size][size];
-
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                distances[i][j] = getDistanceValue(matrix[i][j]);
-            }
-        }
-
-        return distances;
-    }
-
-    /**
-     * Converts the matrix value to the appropriate distance value.
-     *
-     * @param value The value to be converted.
-     * @return The distance value.
-     */
-    private static double getDistanceValue(double value) {
-        return (value == 0) ? Double.POSITIVE_INFINITY : value;
-    }
-
-    /**
-     * Applies the Floyd-Warshall algorithm to calculate the shortest distances.
-     *
-     * @param distances The distances matrix.
-     * @param size      The size of the matrix.
-     */
-    private static void applyFloydWarshallAlgorithm(double[][] distances, int size) {
-        for (int k = 0; k < size; k++) {
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    if (distances[i][k] + distances[k][j] < distances[i][j]) {
-                        distances[i][j] = distances[i][k] + distances[k][j];
-                    }
-                }
-            }
-        }
+        return BlockedFloydWarshall.compute(matrix, false, false, BlockedFloydWarshall.DEFAULT_BLOCK_SIZE,
+                ForkJoinPool.commonPool()).toMatrix();
     }
 
     /**